@@ -43,3 +43,40 @@ create table chat_history
     INDEX idx_createTime (createTime),             -- 提升基于时间的查询性能
     INDEX idx_appId_createTime (appId, createTime) -- 游标查询核心索引
 ) comment '对话历史' collate = utf8mb4_unicode_ci;
+
+-- 应用表
+-- 停用词规则在创建全文索引时确定，关闭停用词后再建表，否则 data、login 等含 at、in 等停用词分词的英文关键词无法命中全文索引
+set session innodb_ft_enable_stopword = 0;
+create table if not exists app
+(
+    id           bigint                             not null comment 'id' primary key,
+    appName      varchar(256)                       null comment '应用名称',
+    cover        varchar(512)                       null comment '应用封面',
+    initPrompt   text                               null comment '应用初始化的 prompt',
+    codeGenType  varchar(64)                        null comment '代码生成类型（枚举）',
+    deployKey    varchar(64)                        null comment '部署标识',
+    deployedTime datetime                           null comment '部署时间',
+    priority     int      default 0                 not null comment '优先级',
+    userId       bigint                             not null comment '创建用户id',
+    editTime     datetime default CURRENT_TIMESTAMP not null comment '编辑时间',
+    createTime   datetime default CURRENT_TIMESTAMP not null comment '创建时间',
+    updateTime   datetime default CURRENT_TIMESTAMP not null on update CURRENT_TIMESTAMP comment '更新时间',
+    isDelete     tinyint  default 0                 not null comment '是否删除',
+    UNIQUE KEY uk_deployKey (deployKey),                          -- 确保部署标识唯一
+    INDEX idx_appName (appName),                                  -- 提升基于应用名称的查询性能
+    INDEX idx_userId_createTime (userId, isDelete, createTime, id), -- 我的应用列表游标查询
+    INDEX idx_priority_createTime (priority, isDelete, createTime, id), -- 精选应用列表游标查询
+    INDEX idx_createTime (isDelete, createTime, id),              -- 管理员列表游标查询
+    FULLTEXT INDEX ft_appName (appName) WITH PARSER ngram,        -- 按应用名称检索
+    FULLTEXT INDEX ft_initPrompt (initPrompt) WITH PARSER ngram,  -- 按初始 prompt 检索
+    FULLTEXT INDEX ft_appName_initPrompt (appName, initPrompt) WITH PARSER ngram -- 关键词搜索与相关度排序
+) comment '应用' collate = utf8mb4_unicode_ci;
+
+-- 已有的应用表补充游标分页索引
+-- alter table app
+--     add index idx_userId_createTime (userId, isDelete, createTime, id),
+--     add index idx_priority_createTime (priority, isDelete, createTime, id),
+--     add index idx_createTime (isDelete, createTime, id);
+
+-- 已有的应用表补充全文索引：执行 update_app_fulltext_index.sql
+-- 应用启动后首次查询时检查全文索引，缺失的索引对应的检索条件使用 like
@@ -0,0 +1,27 @@
+# 已有的应用表补充全文索引
+# 可重复执行：先删除应用表上已有的全文索引，再在关闭停用词的会话中重建
+
+-- 切换库
+use dong_ai_code_generator;
+
+-- 停用词规则在创建全文索引时确定。InnoDB 默认停用词表包含 at、in、to 等英文单词，
+-- ngram 分词时含停用词的分词会被丢弃，data、login 等英文关键词将无法命中，因此建索引前关闭停用词
+set session innodb_ft_enable_stopword = 0;
+
+-- 删除已有的全文索引（可能是在开启停用词时创建的）
+set @drop_fulltext_sql = (select concat('alter table app ',
+                                        group_concat(distinct concat('drop index ', index_name) separator ', '))
+                          from information_schema.statistics
+                          where table_schema = database()
+                            and table_name = 'app'
+                            and index_type = 'FULLTEXT');
+set @drop_fulltext_sql = ifnull(@drop_fulltext_sql, 'do 0');
+prepare drop_fulltext_stmt from @drop_fulltext_sql;
+execute drop_fulltext_stmt;
+deallocate prepare drop_fulltext_stmt;
+
+-- ngram 分词，需要 MySQL 5.7.6 及以上，分词长度由 ngram_token_size 决定，默认 2
+-- InnoDB 一次只能新建一个全文索引，分开执行
+alter table app add fulltext index ft_appName (appName) with parser ngram;
+alter table app add fulltext index ft_initPrompt (initPrompt) with parser ngram;
+alter table app add fulltext index ft_appName_initPrompt (appName, initPrompt) with parser ngram;
@@ -0,0 +1,87 @@
+package com.dong.dongaicodegenerator.benchmark;
+
+import cn.hutool.core.io.resource.ResourceUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.dong.dongaicodegenerator.ai.model.message.*;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.service.tool.ToolExecution;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 基准测试使用的 LLM 响应样本
+ * 与 mock-model 离线模型共用测试资源 transcripts 目录中的样本（从测试 classpath 读取），按真实响应的大小和结构准备：
+ * - html.txt：单文件 HTML 模式的完整回答（约 20 KB）
+ * - multi-file.txt：多文件模式的完整回答（约 75 KB）
+ * - vue-project.jsonl：Vue 工程模式下 TokenStream 转换后的消息，每行一条 JSON
+ */
+public final class Transcripts {
+
+    public static final String HTML = "transcripts/html.txt";
+
+    public static final String MULTI_FILE = "transcripts/multi-file.txt";
+
+    public static final String VUE_PROJECT = "transcripts/vue-project.jsonl";
+
+    private Transcripts() {
+    }
+
+    /**
+     * 读取完整的响应内容
+     */
+    public static String load(String name) {
+        return ResourceUtil.readStr(name, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 读取按行保存的消息
+     */
+    public static List<String> loadLines(String name) {
+        return StrUtil.split(load(name), '\n', true, true);
+    }
+
+    /**
+     * 读取按行保存的消息并还原为 TokenStream 转换后的消息对象
+     */
+    public static List<StreamMessage> loadStreamMessages(String name) {
+        List<StreamMessage> messages = new ArrayList<>();
+        for (String line : loadLines(name)) {
+            JSONObject json = JSONUtil.parseObj(line);
+            ToolExecutionRequest toolExecutionRequest = ToolExecutionRequest.builder()
+                    .id(json.getStr("id"))
+                    .name(json.getStr("name"))
+                    .arguments(json.getStr("arguments"))
+                    .build();
+            StreamMessageTypeEnum typeEnum = StreamMessageTypeEnum.getEnumByValue(json.getStr("type"));
+            messages.add(switch (typeEnum) {
+                case AI_RESPONSE -> new AiResponseMessage(json.getStr("data"));
+                case TOOL_REQUEST -> new ToolRequestMessage(toolExecutionRequest);
+                case TOOL_EXECUTED -> new ToolExecutedMessage(ToolExecution.builder()
+                        .request(toolExecutionRequest)
+                        .result(json.getStr("result"))
+                        .build());
+            });
+        }
+        return messages;
+    }
+
+    /**
+     * 按模型流式输出的粒度（1~4 个字符）切分响应，使用固定种子保证每次切分结果一致
+     */
+    public static List<String> toTokens(String content) {
+        Random random = new Random(42);
+        List<String> tokens = new ArrayList<>(content.length() / 2);
+        int i = 0;
+        while (i < content.length()) {
+            int end = Math.min(content.length(), i + 1 + random.nextInt(4));
+            tokens.add(content.substring(i, end));
+            i = end;
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,34 @@
+package com.dong.dongaicodegenerator.controller;
+
+import com.dong.dongaicodegenerator.benchmark.Transcripts;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SSE 事件封装的基准测试，每次调用封装一次多文件生成的全部 token
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SseMappingBenchmark {
+
+    private List<String> tokens;
+
+    @Setup
+    public void setup() {
+        tokens = Transcripts.toTokens(Transcripts.load(Transcripts.MULTI_FILE));
+    }
+
+    @Benchmark
+    public void toServerSentEvent(Blackhole blackhole) {
+        for (String token : tokens) {
+            blackhole.consume(AppController.toServerSentEvent(token));
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.dong.dongaicodegenerator.core.handler;
+
+import com.dong.dongaicodegenerator.ai.model.message.StreamMessage;
+import com.dong.dongaicodegenerator.benchmark.Transcripts;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vue 工程模式下流式消息处理的基准测试，每次调用处理一次完整生成的全部消息
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonMessageStreamHandlerBenchmark {
+
+    private final JsonMessageStreamHandler jsonMessageStreamHandler = new JsonMessageStreamHandler();
+
+    private List<StreamMessage> streamMessages;
+
+    @Setup
+    public void setup() {
+        streamMessages = Transcripts.loadStreamMessages(Transcripts.VUE_PROJECT);
+    }
+
+    @Benchmark
+    public String handleStreamMessage(Blackhole blackhole) {
+        StringBuilder chatHistoryStringBuilder = new StringBuilder();
+        Set<String> seenToolIds = new HashSet<>();
+        for (StreamMessage streamMessage : streamMessages) {
+            blackhole.consume(jsonMessageStreamHandler.handleStreamMessage(streamMessage, chatHistoryStringBuilder, seenToolIds));
+        }
+        return chatHistoryStringBuilder.toString();
+    }
+}
@@ -0,0 +1,83 @@
+package com.dong.dongaicodegenerator.core.parser;
+
+import com.dong.dongaicodegenerator.ai.model.HtmlCodeResult;
+import com.dong.dongaicodegenerator.ai.model.MultiFileCodeResult;
+import com.dong.dongaicodegenerator.benchmark.Transcripts;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 代码解析基准测试：正则全量解析与流式解析对比
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodeParserBenchmark {
+
+    private final HtmlCodeParser htmlCodeParser = new HtmlCodeParser();
+
+    private final MultiFileCodeParser multiFileCodeParser = new MultiFileCodeParser();
+
+    private String htmlContent;
+
+    private String multiFileContent;
+
+    private List<String> htmlTokens;
+
+    private List<String> multiFileTokens;
+
+    @Setup
+    public void setup() {
+        htmlContent = Transcripts.load(Transcripts.HTML);
+        multiFileContent = Transcripts.load(Transcripts.MULTI_FILE);
+        htmlTokens = Transcripts.toTokens(htmlContent);
+        multiFileTokens = Transcripts.toTokens(multiFileContent);
+    }
+
+    @Benchmark
+    public HtmlCodeResult htmlCodeParser() {
+        return htmlCodeParser.parseCode(htmlContent);
+    }
+
+    @Benchmark
+    public MultiFileCodeResult multiFileCodeParser() {
+        return multiFileCodeParser.parseCode(multiFileContent);
+    }
+
+    /**
+     * 与线上流程一致：逐个 token 拼接，流结束后再正则解析
+     */
+    @Benchmark
+    public MultiFileCodeResult multiFileCodeParserAfterBuffering() {
+        StringBuilder codeBuilder = new StringBuilder();
+        for (String token : multiFileTokens) {
+            codeBuilder.append(token);
+        }
+        return multiFileCodeParser.parseCode(codeBuilder.toString());
+    }
+
+    @Benchmark
+    public HtmlCodeResult streamingHtmlCodeParser() {
+        StreamingCodeParser parser = new StreamingCodeParser();
+        for (String token : htmlTokens) {
+            parser.feed(token);
+        }
+        parser.finish();
+        return parser.toHtmlCodeResult();
+    }
+
+    @Benchmark
+    public MultiFileCodeResult streamingMultiFileCodeParser() {
+        StreamingCodeParser parser = new StreamingCodeParser();
+        for (String token : multiFileTokens) {
+            parser.feed(token);
+        }
+        parser.finish();
+        return parser.toMultiFileCodeResult();
+    }
+}
@@ -0,0 +1,100 @@
+package com.dong.dongaicodegenerator.core.saver;
+
+import cn.hutool.core.io.FileUtil;
+import com.dong.dongaicodegenerator.ai.model.HtmlCodeResult;
+import com.dong.dongaicodegenerator.ai.model.MultiFileCodeResult;
+import com.dong.dongaicodegenerator.benchmark.Transcripts;
+import com.dong.dongaicodegenerator.core.parser.HtmlCodeParser;
+import com.dong.dongaicodegenerator.core.parser.MultiFileCodeParser;
+import com.dong.dongaicodegenerator.core.parser.StreamingCodeParser;
+import com.dong.dongaicodegenerator.model.enums.CodeGenTypeEnum;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 代码文件保存基准测试，文件写入 @Setup 创建的临时目录，不触碰 temp/code_output 中的真实代码，结束后删除
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CodeFileSaverBenchmark {
+
+    private static final Long APP_ID = 999_999_999L;
+
+    private Path outputRoot;
+
+    private HtmlCodeSaverTemplate htmlCodeSaverTemplate;
+
+    private MultiFileCodeSaverTemplate multiFileCodeSaverTemplate;
+
+    private HtmlCodeResult htmlCodeResult;
+
+    private MultiFileCodeResult multiFileCodeResult;
+
+    private List<String> multiFileTokens;
+
+    @Setup
+    public void setup() throws IOException {
+        outputRoot = Files.createTempDirectory("code-file-saver-benchmark");
+        htmlCodeSaverTemplate = new HtmlCodeSaverTemplate() {
+            @Override
+            protected String buildUniqueDir(CodeGenTypeEnum codeGenTypeEnum, Long appId) {
+                return buildBenchmarkDir(codeGenTypeEnum, appId);
+            }
+        };
+        multiFileCodeSaverTemplate = new MultiFileCodeSaverTemplate() {
+            @Override
+            protected String buildUniqueDir(CodeGenTypeEnum codeGenTypeEnum, Long appId) {
+                return buildBenchmarkDir(codeGenTypeEnum, appId);
+            }
+        };
+        htmlCodeResult = new HtmlCodeParser().parseCode(Transcripts.load(Transcripts.HTML));
+        String multiFileContent = Transcripts.load(Transcripts.MULTI_FILE);
+        multiFileCodeResult = new MultiFileCodeParser().parseCode(multiFileContent);
+        multiFileTokens = Transcripts.toTokens(multiFileContent);
+    }
+
+    @TearDown
+    public void tearDown() {
+        FileUtil.del(outputRoot.toFile());
+    }
+
+    @Benchmark
+    public File saveHtmlCodeFile() {
+        return htmlCodeSaverTemplate.saveCodeFile(htmlCodeResult, APP_ID, CodeGenTypeEnum.HTML);
+    }
+
+    @Benchmark
+    public File saveMultiFileCodeFile() {
+        return multiFileCodeSaverTemplate.saveCodeFile(multiFileCodeResult, APP_ID, CodeGenTypeEnum.MULTI_FILE);
+    }
+
+    private String buildBenchmarkDir(CodeGenTypeEnum codeGenTypeEnum, Long appId) {
+        File dir = outputRoot.resolve(codeGenTypeEnum.getValue() + "_" + appId).toFile();
+        FileUtil.mkdir(dir);
+        return dir.getPath();
+    }
+
+    /**
+     * 流式保存：逐个 token 解析并追加写入，代码块闭合时原子替换
+     */
+    @Benchmark
+    public List<String> streamingSaveMultiFileCodeFile() {
+        StreamingCodeFileSaver saver = multiFileCodeSaverTemplate.openStreamingSaver(APP_ID, CodeGenTypeEnum.MULTI_FILE);
+        StreamingCodeParser parser = new StreamingCodeParser(saver);
+        for (String token : multiFileTokens) {
+            parser.feed(token);
+        }
+        parser.finish();
+        return saver.getSavedFileNames();
+    }
+}
@@ -6,45 +6,53 @@ import dev.langchain4j.service.MemoryId;
 import dev.langchain4j.service.SystemMessage;
 import dev.langchain4j.service.TokenStream;
 import dev.langchain4j.service.UserMessage;
+import dev.langchain4j.service.memory.ChatMemoryAccess;
 import reactor.core.publisher.Flux;
 
-public interface AiCodeGeneratorService {
+/**
+ * AI 代码生成服务，继承 ChatMemoryAccess 用于在调用结束后释放对话记忆对象
+ */
+public interface AiCodeGeneratorService extends ChatMemoryAccess {
 
     /**
      * 根据提示词生成HTML代码
+     * @param appId 应用 ID（对话记忆 ID）
      * @param prompt
      * @return
      */
     @SystemMessage(fromResource = "prompt/codegen-html-system-prompt.txt")
-    HtmlCodeResult generateHtmlCode(String prompt);
+    HtmlCodeResult generateHtmlCode(@MemoryId long appId, @UserMessage String prompt);
 
 
     /**
      * 根据提示词生成多文件的代码
+     * @param appId 应用 ID（对话记忆 ID）
      * @param prompt
      * @return
      */
     @SystemMessage(fromResource = "prompt/codegen-multi-file-system-prompt.txt")
-    MultiFileCodeResult generateMultiFleCode(String prompt);
+    MultiFileCodeResult generateMultiFleCode(@MemoryId long appId, @UserMessage String prompt);
 
 
     /**
      * 生成 HTML 代码（流式）
      *
+     * @param appId       应用 ID（对话记忆 ID）
      * @param userMessage 用户消息
      * @return 生成的代码结果
      */
     @SystemMessage(fromResource = "prompt/codegen-html-system-prompt.txt")
-    Flux<String> generateHtmlCodeStream(String userMessage);
+    Flux<String> generateHtmlCodeStream(@MemoryId long appId, @UserMessage String userMessage);
 
     /**
      * 生成多文件代码（流式）
      *
+     * @param appId       应用 ID（对话记忆 ID）
      * @param userMessage 用户消息
      * @return 生成的代码结果
      */
     @SystemMessage(fromResource = "prompt/codegen-multi-file-system-prompt.txt")
-    Flux<String> generateMultiFileCodeStream(String userMessage);
+    Flux<String> generateMultiFileCodeStream(@MemoryId long appId, @UserMessage String userMessage);
 
     /**
      * 生成 Vue 项目代码（流式）
@@ -5,20 +5,22 @@ import com.dong.dongaicodegenerator.exception.ErrorCode;
 import com.dong.dongaicodegenerator.model.enums.CodeGenTypeEnum;
 import com.dong.dongaicodegenerator.service.ChatHistoryService;
 import com.dong.dongaicodegenerator.tool.FileWriteTool;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import dev.langchain4j.community.store.memory.chat.redis.RedisChatMemoryStore;
 import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.memory.ChatMemory;
 import dev.langchain4j.memory.chat.MessageWindowChatMemory;
 import dev.langchain4j.model.chat.ChatModel;
 import dev.langchain4j.model.chat.StreamingChatModel;
 import dev.langchain4j.service.AiServices;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * AI 服务创建工厂
@@ -27,6 +29,16 @@ import java.time.Duration;
 @Slf4j
 public class AiCodeGeneratorServiceFactory {
 
+    /**
+     * 每个 appId 最多保留的记忆消息数
+     */
+    private static final int MAX_MEMORY_MESSAGES = 50;
+
+    /**
+     * 记忆过期后从数据库加载的最大对话记录数
+     */
+    private static final int MAX_HISTORY_NUM = 20;
+
     @Resource
     private ChatModel chatModel;
     @Resource
@@ -38,64 +50,62 @@ public class AiCodeGeneratorServiceFactory {
     @Resource
     private ChatHistoryService chatHistoryService;
 
-
     /**
-     * AI 服务实例缓存
-     * 缓存策略：
-     * - 最大缓存 1000 个实例
-     * - 写入后 30 分钟过期
-     * - 访问后 10 分钟过期
+     * Redis 中没有记忆时从数据库恢复的对话记忆存储
      */
-    private final Cache<String, AiCodeGeneratorService> serviceCache = Caffeine.newBuilder()
-            .maximumSize(1000)
-            .expireAfterWrite(Duration.ofMinutes(30))
-            .expireAfterAccess(Duration.ofMinutes(10))
-            .removalListener((key, value, cause) -> {
-                log.debug("AI 服务实例被移除，缓存键: {}, 原因: {}", key, cause);
-            })
-            .build();
+    private ChatMemoryStore chatMemoryStore;
 
     /**
-     * 根据 appId 获取服务（带缓存）
+     * 每种代码生成类型共享一个 AI 服务代理
+     * 代理本身除对话记忆外是无状态的，对话记忆通过 ChatMemoryProvider 按 appId 懒加载，
+     * 每次调用结束后由 releaseChatMemory 释放，代理中不会堆积所有 appId 的记忆对象
      */
-    public AiCodeGeneratorService getAiCodeGeneratorService(long appId) {
-        // 根据 appId 获取服务器缓存中的服务实例，如果缓存中没有则创建新的实例并缓存
-        // return serviceCache.get(appId, this::createAiCodeGeneratorService);
-        return getAiCodeGeneratorService(appId, CodeGenTypeEnum.HTML);
+    private final Map<CodeGenTypeEnum, AiCodeGeneratorService> serviceMap = new EnumMap<>(CodeGenTypeEnum.class);
+
+    @PostConstruct
+    public void init() {
+        chatMemoryStore = new ChatHistoryFallbackChatMemoryStore(redisChatMemoryStore, chatHistoryService,
+                MAX_MEMORY_MESSAGES, MAX_HISTORY_NUM);
     }
 
     /**
-     * 根据 appId 获取服务
+     * 根据生成类型获取共享的服务实例
      *
-     * @param appId       应用 id
      * @param codeGenType 生成类型
      * @return
      */
-    public AiCodeGeneratorService getAiCodeGeneratorService(long appId, CodeGenTypeEnum codeGenType) {
-        String cacheKey = buildCacheKey(appId, codeGenType);
-        return serviceCache.get(cacheKey, key
-                -> createAiCodeGeneratorService(appId, codeGenType));
+    public AiCodeGeneratorService getAiCodeGeneratorService(CodeGenTypeEnum codeGenType) {
+        synchronized (serviceMap) {
+            return serviceMap.computeIfAbsent(codeGenType, this::createAiCodeGeneratorService);
+        }
+    }
+
+    /**
+     * 一次调用结束后释放该 appId 的对话记忆对象，记忆内容仍保存在 Redis 中，下次调用时重新创建
+     *
+     * @param codeGenType 生成类型
+     * @param appId       应用 ID
+     */
+    public void releaseChatMemory(CodeGenTypeEnum codeGenType, long appId) {
+        AiCodeGeneratorService aiCodeGeneratorService;
+        synchronized (serviceMap) {
+            aiCodeGeneratorService = serviceMap.get(codeGenType);
+        }
+        if (aiCodeGeneratorService != null) {
+            aiCodeGeneratorService.evictChatMemory(appId);
+        }
     }
 
     /**
      * 创建新的 AI 服务实例
      */
-    private AiCodeGeneratorService createAiCodeGeneratorService(long appId, CodeGenTypeEnum codeGenType) {
-        log.info("为 appId: {} 创建新的 AI 服务实例", appId);
-        // 根据 appId 构建独立的对话记忆
-        MessageWindowChatMemory chatMemory = MessageWindowChatMemory
-                .builder()
-                .id(appId)
-                .chatMemoryStore(redisChatMemoryStore)
-                .maxMessages(50) // 每个 appId 最多保留 50 条消息
-                .build();
-        // 从数据库中加载历史对话记录到 chatMemory 中
-        chatHistoryService.loadChatHistoryToMemory(appId, chatMemory, 20);
+    private AiCodeGeneratorService createAiCodeGeneratorService(CodeGenTypeEnum codeGenType) {
+        log.info("为代码生成类型: {} 创建 AI 服务实例", codeGenType.getValue());
         return switch (codeGenType) {
             case VUE_PROJECT -> AiServices.builder(AiCodeGeneratorService.class)
                     .chatModel(chatModel)
                     .streamingChatModel(reasoningStreamingChatModel)
-                    .chatMemoryProvider(memoryId -> chatMemory)
+                    .chatMemoryProvider(this::getChatMemory)
                     .tools(new FileWriteTool())
                     .hallucinatedToolNameStrategy(toolExecutionRequest ->
                             ToolExecutionResultMessage.from(toolExecutionRequest,
@@ -106,7 +116,7 @@ public class AiCodeGeneratorServiceFactory {
             case HTML, MULTI_FILE -> AiServices.builder(AiCodeGeneratorService.class)
                     .chatModel(chatModel)
                     .streamingChatModel(openAiStreamingChatModel)
-                    .chatMemory(chatMemory)
+                    .chatMemoryProvider(this::getChatMemory)
                     .build();
             default ->
                 throw new BusinessException(ErrorCode.OPERATION_ERROR, "不支持的代码生成类型: " + codeGenType);
@@ -114,14 +124,19 @@ public class AiCodeGeneratorServiceFactory {
     }
 
     /**
-     * 构造缓存键
+     * 根据 appId 获取对话记忆
+     * 记忆内容保存在 Redis 中，这里只构建轻量的访问对象；Redis 中没有记忆（首次对话或已过期）时由存储从数据库加载
      *
-     * @param appId
-     * @param codeGenType
+     * @param memoryId appId
      * @return
      */
-    private String buildCacheKey(long appId, CodeGenTypeEnum codeGenType) {
-        return appId + "_" + codeGenType.getValue();
+    private ChatMemory getChatMemory(Object memoryId) {
+        return MessageWindowChatMemory
+                .builder()
+                .id(Long.parseLong(memoryId.toString()))
+                .chatMemoryStore(chatMemoryStore)
+                .maxMessages(MAX_MEMORY_MESSAGES)
+                .build();
     }
 
     /**
@@ -130,7 +145,7 @@ public class AiCodeGeneratorServiceFactory {
      */
     @Bean
     public AiCodeGeneratorService aiCodeGeneratorService() {
-        // 默认使用 appId 0L 的服务实例，可以根据实际情况调整
-        return getAiCodeGeneratorService(0L);
+        // 默认使用 HTML 类型的共享服务实例，可以根据实际情况调整
+        return getAiCodeGeneratorService(CodeGenTypeEnum.HTML);
     }
 }
@@ -0,0 +1,65 @@
+package com.dong.dongaicodegenerator.ai;
+
+import com.dong.dongaicodegenerator.service.ChatHistoryService;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.memory.chat.MessageWindowChatMemory;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+
+import java.util.List;
+
+/**
+ * 带数据库兜底的对话记忆存储
+ * 对话记忆保存在 Redis 中，每次读取记忆时如果 Redis 中没有（首次对话或已过期），
+ * 从数据库加载最近的对话记录写回 Redis，记忆过期后的下一次对话也能恢复上下文
+ */
+public class ChatHistoryFallbackChatMemoryStore implements ChatMemoryStore {
+
+    private final ChatMemoryStore delegate;
+
+    private final ChatHistoryService chatHistoryService;
+
+    private final int maxMessages;
+
+    private final int maxHistoryNum;
+
+    /**
+     * @param delegate           实际存储记忆的 Redis 存储
+     * @param chatHistoryService 对话历史服务
+     * @param maxMessages        记忆窗口大小
+     * @param maxHistoryNum      从数据库加载的最大对话记录数
+     */
+    public ChatHistoryFallbackChatMemoryStore(ChatMemoryStore delegate, ChatHistoryService chatHistoryService,
+                                              int maxMessages, int maxHistoryNum) {
+        this.delegate = delegate;
+        this.chatHistoryService = chatHistoryService;
+        this.maxMessages = maxMessages;
+        this.maxHistoryNum = maxHistoryNum;
+    }
+
+    @Override
+    public List<ChatMessage> getMessages(Object memoryId) {
+        List<ChatMessage> messages = delegate.getMessages(memoryId);
+        if (!messages.isEmpty()) {
+            return messages;
+        }
+        // 先加载到临时的内存记忆中，复用记忆窗口的裁剪规则，再整体写回 Redis
+        long appId = Long.parseLong(memoryId.toString());
+        MessageWindowChatMemory historyMemory = MessageWindowChatMemory.withMaxMessages(maxMessages);
+        if (chatHistoryService.loadChatHistoryToMemory(appId, historyMemory, maxHistoryNum) == 0) {
+            return messages;
+        }
+        List<ChatMessage> historyMessages = historyMemory.messages();
+        delegate.updateMessages(memoryId, historyMessages);
+        return historyMessages;
+    }
+
+    @Override
+    public void updateMessages(Object memoryId, List<ChatMessage> messages) {
+        delegate.updateMessages(memoryId, messages);
+    }
+
+    @Override
+    public void deleteMessages(Object memoryId) {
+        delegate.deleteMessages(memoryId);
+    }
+}
@@ -0,0 +1,82 @@
+package com.dong.dongaicodegenerator.ai.mock;
+
+import cn.hutool.json.JSONUtil;
+import com.dong.dongaicodegenerator.config.MockChatModelConfig;
+import com.dong.dongaicodegenerator.core.parser.HtmlCodeParser;
+import com.dong.dongaicodegenerator.core.parser.MultiFileCodeParser;
+import com.dong.dongaicodegenerator.exception.BusinessException;
+import com.dong.dongaicodegenerator.exception.ErrorCode;
+import com.dong.dongaicodegenerator.model.enums.CodeGenTypeEnum;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.ChatResponseMetadata;
+import dev.langchain4j.model.output.FinishReason;
+import dev.langchain4j.model.output.TokenUsage;
+
+/**
+ * 离线非流式模型
+ * 路由请求返回配置的代码生成类型，HTML / 多文件的结构化输出请求返回由录制样本解析出的 JSON
+ */
+public class MockChatModel implements ChatModel {
+
+    /**
+     * 路由提示词中列出了全部生成类型，其他提示词不会出现该内容
+     */
+    private static final String ROUTING_MARKER = CodeGenTypeEnum.VUE_PROJECT.name();
+
+    private final MockTranscripts mockTranscripts;
+
+    private final MockChatModelConfig mockChatModelConfig;
+
+    private final String htmlCodeJson;
+
+    private final String multiFileCodeJson;
+
+    public MockChatModel(MockTranscripts mockTranscripts, MockChatModelConfig mockChatModelConfig) {
+        this.mockTranscripts = mockTranscripts;
+        this.mockChatModelConfig = mockChatModelConfig;
+        this.htmlCodeJson = JSONUtil.toJsonStr(new HtmlCodeParser().parseCode(mockTranscripts.getHtmlContent()));
+        this.multiFileCodeJson = JSONUtil.toJsonStr(new MultiFileCodeParser().parseCode(mockTranscripts.getMultiFileContent()));
+    }
+
+    @Override
+    public ChatResponse doChat(ChatRequest chatRequest) {
+        String text;
+        if (isRoutingRequest(chatRequest)) {
+            text = mockChatModelConfig.getCodeGenType();
+        } else if (mockTranscripts.isMultiFile(chatRequest)) {
+            text = multiFileCodeJson;
+        } else {
+            text = htmlCodeJson;
+        }
+        // 非流式调用按完整输出所需的时间一次性返回
+        int outputTokenCount = text.length() / Math.max(1, mockChatModelConfig.getMaxTokenChars());
+        long latencyMs = mockChatModelConfig.getFirstTokenLatencyMs();
+        if (mockChatModelConfig.getTokensPerSecond() > 0) {
+            latencyMs += 1000L * outputTokenCount / mockChatModelConfig.getTokensPerSecond();
+        }
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "离线模型调用被中断");
+        }
+        return ChatResponse.builder()
+                .aiMessage(AiMessage.from(text))
+                .metadata(ChatResponseMetadata.builder()
+                        .modelName(MockChatModelConfig.MODEL_NAME)
+                        .tokenUsage(new TokenUsage(0, outputTokenCount))
+                        .finishReason(FinishReason.STOP)
+                        .build())
+                .build();
+    }
+
+    private boolean isRoutingRequest(ChatRequest chatRequest) {
+        return chatRequest.messages().stream()
+                .filter(SystemMessage.class::isInstance)
+                .anyMatch(message -> ((SystemMessage) message).text().contains(ROUTING_MARKER));
+    }
+}
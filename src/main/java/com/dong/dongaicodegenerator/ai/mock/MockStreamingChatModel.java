@@ -0,0 +1,147 @@
+package com.dong.dongaicodegenerator.ai.mock;
+
+import cn.hutool.core.util.StrUtil;
+import com.dong.dongaicodegenerator.config.MockChatModelConfig;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.ChatResponseMetadata;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import dev.langchain4j.model.output.FinishReason;
+import dev.langchain4j.model.output.TokenUsage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 离线流式模型
+ * 按配置的速率、抖动和并发上限回放录制的响应，包括 FileWriteTool 的工具调用增量，
+ * 用于在不消耗 token 的情况下对生成链路做压测。每次请求在独立的虚拟线程中回放
+ */
+@Slf4j
+public class MockStreamingChatModel implements StreamingChatModel {
+
+    private final MockTranscripts mockTranscripts;
+
+    private final MockChatModelConfig mockChatModelConfig;
+
+    /**
+     * 并发上限，为 null 表示不限制
+     */
+    private final Semaphore concurrencyLimiter;
+
+    public MockStreamingChatModel(MockTranscripts mockTranscripts, MockChatModelConfig mockChatModelConfig) {
+        this.mockTranscripts = mockTranscripts;
+        this.mockChatModelConfig = mockChatModelConfig;
+        int maxConcurrency = mockChatModelConfig.getMaxConcurrency();
+        this.concurrencyLimiter = maxConcurrency > 0 ? new Semaphore(maxConcurrency, true) : null;
+    }
+
+    @Override
+    public void doChat(ChatRequest chatRequest, StreamingChatResponseHandler handler) {
+        Thread.ofVirtual()
+                .name("mock-model-stream")
+                .start(() -> replay(chatRequest, handler));
+    }
+
+    private void replay(ChatRequest chatRequest, StreamingChatResponseHandler handler) {
+        boolean acquired = false;
+        try {
+            if (concurrencyLimiter != null) {
+                // 与真实模型的限流一样，超出并发上限的请求排队等待
+                concurrencyLimiter.acquire();
+                acquired = true;
+            }
+            MockTranscripts.MockTurn turn = mockTranscripts.selectTurn(chatRequest);
+            sleep(mockChatModelConfig.getFirstTokenLatencyMs());
+            int outputTokenCount = 0;
+            String text = turn.getText();
+            for (int i = 0; i < text.length(); ) {
+                int end = nextTokenEnd(text, i);
+                handler.onPartialResponse(text.substring(i, end));
+                outputTokenCount++;
+                i = end;
+                pauseBetweenTokens();
+            }
+            ToolExecutionRequest toolExecutionRequest = turn.getToolExecutionRequest();
+            if (toolExecutionRequest != null) {
+                String arguments = toolExecutionRequest.arguments();
+                for (int i = 0; i < arguments.length(); ) {
+                    int end = nextTokenEnd(arguments, i);
+                    handler.onPartialToolExecutionRequest(0, ToolExecutionRequest.builder()
+                            .id(toolExecutionRequest.id())
+                            .name(toolExecutionRequest.name())
+                            .arguments(arguments.substring(i, end))
+                            .build());
+                    outputTokenCount++;
+                    i = end;
+                    pauseBetweenTokens();
+                }
+                handler.onCompleteToolExecutionRequest(0, toolExecutionRequest);
+            }
+            AiMessage aiMessage;
+            if (toolExecutionRequest == null) {
+                aiMessage = AiMessage.from(text);
+            } else if (StrUtil.isEmpty(text)) {
+                aiMessage = AiMessage.from(toolExecutionRequest);
+            } else {
+                aiMessage = AiMessage.from(text, List.of(toolExecutionRequest));
+            }
+            handler.onCompleteResponse(ChatResponse.builder()
+                    .aiMessage(aiMessage)
+                    .metadata(ChatResponseMetadata.builder()
+                            .modelName(MockChatModelConfig.MODEL_NAME)
+                            .tokenUsage(new TokenUsage(0, outputTokenCount))
+                            .finishReason(toolExecutionRequest == null ? FinishReason.STOP : FinishReason.TOOL_EXECUTION)
+                            .build())
+                    .build());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            handler.onError(e);
+        } catch (Exception e) {
+            log.error("离线模型回放失败", e);
+            handler.onError(e);
+        } finally {
+            if (acquired) {
+                concurrencyLimiter.release();
+            }
+        }
+    }
+
+    /**
+     * 按 1 ~ maxTokenChars 个字符随机切分 token，避免把代理对拆开
+     */
+    private int nextTokenEnd(String text, int start) {
+        int end = Math.min(text.length(), start + ThreadLocalRandom.current().nextInt(1, mockChatModelConfig.getMaxTokenChars() + 1));
+        if (end < text.length() && Character.isHighSurrogate(text.charAt(end - 1))) {
+            end++;
+        }
+        return end;
+    }
+
+    private void pauseBetweenTokens() throws InterruptedException {
+        int tokensPerSecond = mockChatModelConfig.getTokensPerSecond();
+        if (tokensPerSecond <= 0) {
+            return;
+        }
+        long intervalNanos = 1_000_000_000L / tokensPerSecond;
+        long jitterNanos = Duration.ofMillis(mockChatModelConfig.getJitterMs()).toNanos();
+        if (jitterNanos > 0) {
+            intervalNanos += ThreadLocalRandom.current().nextLong(-jitterNanos, jitterNanos + 1);
+        }
+        if (intervalNanos > 0) {
+            Thread.sleep(Duration.ofNanos(intervalNanos));
+        }
+    }
+
+    private void sleep(long millis) throws InterruptedException {
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.dong.dongaicodegenerator.ai.mock;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.dong.dongaicodegenerator.ai.model.message.StreamMessageTypeEnum;
+import com.dong.dongaicodegenerator.exception.ErrorCode;
+import com.dong.dongaicodegenerator.exception.ThrowUtils;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 离线模型回放使用的响应样本，从样本目录（默认 src/test/resources/transcripts）读取，不随应用打包：
+ * - html.txt：单文件 HTML 模式的完整回答
+ * - multi-file.txt：多文件模式的完整回答
+ * - vue-project.jsonl：Vue 工程模式的 TokenStream 消息，按工具调用拆分为多轮模型响应
+ */
+public class MockTranscripts {
+
+    private static final String HTML_TRANSCRIPT = "html.txt";
+
+    private static final String MULTI_FILE_TRANSCRIPT = "multi-file.txt";
+
+    private static final String VUE_PROJECT_TRANSCRIPT = "vue-project.jsonl";
+
+    /**
+     * 多文件模式系统提示词中的特征内容
+     */
+    private static final String MULTI_FILE_MARKER = "style.css";
+
+    @Getter
+    private final String htmlContent;
+
+    @Getter
+    private final String multiFileContent;
+
+    /**
+     * Vue 工程模式的每一轮模型响应，最后一轮不包含工具调用
+     */
+    private final List<MockTurn> vueProjectTurns;
+
+    /**
+     * @param transcriptDir 样本目录
+     */
+    public MockTranscripts(File transcriptDir) {
+        ThrowUtils.throwIf(!transcriptDir.isDirectory(), ErrorCode.SYSTEM_ERROR,
+                "离线模型样本目录不存在：" + transcriptDir.getAbsolutePath());
+        this.htmlContent = FileUtil.readString(new File(transcriptDir, HTML_TRANSCRIPT), StandardCharsets.UTF_8);
+        this.multiFileContent = FileUtil.readString(new File(transcriptDir, MULTI_FILE_TRANSCRIPT), StandardCharsets.UTF_8);
+        this.vueProjectTurns = parseVueProjectTurns(
+                FileUtil.readString(new File(transcriptDir, VUE_PROJECT_TRANSCRIPT), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 根据请求选择要回放的一轮响应
+     * 带工具的请求按 Vue 工程回放：最后一条用户消息之后已有几条工具执行结果，就回放第几轮
+     */
+    public MockTurn selectTurn(ChatRequest chatRequest) {
+        if (!chatRequest.toolSpecifications().isEmpty()) {
+            int toolResultCount = 0;
+            List<ChatMessage> messages = chatRequest.messages();
+            for (int i = messages.size() - 1; i >= 0 && !(messages.get(i) instanceof UserMessage); i--) {
+                if (messages.get(i) instanceof ToolExecutionResultMessage) {
+                    toolResultCount++;
+                }
+            }
+            return vueProjectTurns.get(Math.min(toolResultCount, vueProjectTurns.size() - 1));
+        }
+        return new MockTurn(isMultiFile(chatRequest) ? multiFileContent : htmlContent, null);
+    }
+
+    /**
+     * 是否为多文件模式的请求
+     */
+    public boolean isMultiFile(ChatRequest chatRequest) {
+        return chatRequest.messages().stream()
+                .filter(SystemMessage.class::isInstance)
+                .anyMatch(message -> ((SystemMessage) message).text().contains(MULTI_FILE_MARKER));
+    }
+
+    private static List<MockTurn> parseVueProjectTurns(String content) {
+        List<MockTurn> turns = new ArrayList<>();
+        StringBuilder textBuilder = new StringBuilder();
+        for (String line : StrUtil.split(content, '\n', true, true)) {
+            JSONObject message = JSONUtil.parseObj(line);
+            String type = message.getStr("type");
+            if (StreamMessageTypeEnum.AI_RESPONSE.getValue().equals(type)) {
+                textBuilder.append(message.getStr("data"));
+            } else if (StreamMessageTypeEnum.TOOL_EXECUTED.getValue().equals(type)) {
+                // 工具调用参数的增量在回放时重新切分，这里只取完整的工具调用
+                ToolExecutionRequest toolExecutionRequest = ToolExecutionRequest.builder()
+                        .id(message.getStr("id"))
+                        .name(message.getStr("name"))
+                        .arguments(message.getStr("arguments"))
+                        .build();
+                turns.add(new MockTurn(textBuilder.toString(), toolExecutionRequest));
+                textBuilder.setLength(0);
+            }
+        }
+        turns.add(new MockTurn(textBuilder.toString(), null));
+        return Collections.unmodifiableList(turns);
+    }
+
+    /**
+     * 一轮模型响应：文本内容以及可选的一次工具调用
+     */
+    @Data
+    @AllArgsConstructor
+    public static class MockTurn {
+
+        private String text;
+
+        /**
+         * 为 null 表示本轮不调用工具
+         */
+        private ToolExecutionRequest toolExecutionRequest;
+    }
+}
@@ -2,15 +2,13 @@ package com.dong.dongaicodegenerator.ai.model.message;
 
 import lombok.Data;
 import lombok.EqualsAndHashCode;
-import lombok.NoArgsConstructor;
 
 /**
  * AI 响应消息
  */
 @EqualsAndHashCode(callSuper = true)
 @Data
-@NoArgsConstructor
-public class AiResponseMessage extends StreamMessage {
+public final class AiResponseMessage extends StreamMessage {
 
     private String data;
 
@@ -1,15 +1,15 @@
 package com.dong.dongaicodegenerator.ai.model.message;
 
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Data;
-import lombok.NoArgsConstructor;
 
 /**
  * 流式消息响应基类
+ * 消息以对象形式在 Flux 中传递，仅在 SSE 出口处编码一次，处理器通过模式匹配区分具体类型
  */
 @Data
-@AllArgsConstructor
-@NoArgsConstructor
-public class StreamMessage {
+@AllArgsConstructor(access = AccessLevel.PROTECTED)
+public abstract sealed class StreamMessage permits AiResponseMessage, ToolRequestMessage, ToolExecutedMessage {
     private String type;
 }
@@ -3,15 +3,13 @@ package com.dong.dongaicodegenerator.ai.model.message;
 import dev.langchain4j.service.tool.ToolExecution;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
-import lombok.NoArgsConstructor;
 
 /**
  * 工具执行结果消息
  */
 @Data
 @EqualsAndHashCode(callSuper = true)
-@NoArgsConstructor
-public class ToolExecutedMessage extends StreamMessage {
+public final class ToolExecutedMessage extends StreamMessage {
 
     private String id;
 
@@ -3,15 +3,13 @@ package com.dong.dongaicodegenerator.ai.model.message;
 import dev.langchain4j.agent.tool.ToolExecutionRequest;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
-import lombok.NoArgsConstructor;
 
 /**
  * 工具调用消息
  */
 @Data
 @EqualsAndHashCode(callSuper = true)
-@NoArgsConstructor
-public class ToolRequestMessage extends StreamMessage {
+public final class ToolRequestMessage extends StreamMessage {
 
     private String id;
 
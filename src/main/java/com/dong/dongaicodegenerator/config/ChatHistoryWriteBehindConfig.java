@@ -0,0 +1,39 @@
+package com.dong.dongaicodegenerator.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 对话历史异步批量写入配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "chat-history.write-behind")
+@Data
+public class ChatHistoryWriteBehindConfig {
+
+    /**
+     * 是否开启异步批量写入，关闭时退化为同步单条写入
+     */
+    private boolean enabled = true;
+
+    /**
+     * 待写入队列容量，队列满时由调用线程同步写入
+     */
+    private int queueCapacity = 10000;
+
+    /**
+     * 单次批量插入的最大条数
+     */
+    private int batchSize = 200;
+
+    /**
+     * 队列为空时写入线程的最长等待时间（毫秒），也是一条消息的最大攒批延迟
+     */
+    private long flushIntervalMs = 200;
+
+    /**
+     * 应用关闭时等待写入线程刷完队列的最长时间（毫秒）
+     */
+    private long shutdownTimeoutMs = 10000;
+}
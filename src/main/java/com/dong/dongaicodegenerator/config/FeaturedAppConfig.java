@@ -0,0 +1,29 @@
+package com.dong.dongaicodegenerator.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 精选应用快照配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "featured-app")
+@Data
+public class FeaturedAppConfig {
+
+    /**
+     * 是否从内存快照提供精选应用列表，关闭时每次查询数据库
+     */
+    private boolean snapshotEnabled = true;
+
+    /**
+     * 定时重建快照的间隔（毫秒），兜底作者信息等未触发失效的变更
+     */
+    private long refreshIntervalMs = 300000;
+
+    /**
+     * 快照最多容纳的应用数，超出时退化为查询数据库
+     */
+    private int maxSnapshotSize = 1000;
+}
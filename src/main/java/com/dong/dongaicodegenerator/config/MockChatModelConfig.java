@@ -0,0 +1,83 @@
+package com.dong.dongaicodegenerator.config;
+
+import com.dong.dongaicodegenerator.ai.mock.MockChatModel;
+import com.dong.dongaicodegenerator.ai.mock.MockStreamingChatModel;
+import com.dong.dongaicodegenerator.ai.mock.MockTranscripts;
+import dev.langchain4j.model.chat.ChatModel;
+import dev.langchain4j.model.chat.StreamingChatModel;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.io.File;
+
+/**
+ * 离线模型配置（压测用）
+ * 激活 mock-model 环境后，用回放录制样本的模型替换 DeepSeek 的对话模型、流式模型和推理流式模型，
+ * 例如：--spring.profiles.active=local,mock-model
+ */
+@Configuration
+@Profile("mock-model")
+@ConfigurationProperties(prefix = "mock-model")
+@Data
+public class MockChatModelConfig {
+
+    public static final String MODEL_NAME = "mock-model";
+
+    /**
+     * 每秒输出的 token 数，小于等于 0 表示不限速
+     */
+    private int tokensPerSecond = 300;
+
+    /**
+     * 相邻 token 间隔的随机抖动（毫秒）
+     */
+    private long jitterMs = 2;
+
+    /**
+     * 首个 token 的延迟（毫秒）
+     */
+    private long firstTokenLatencyMs = 800;
+
+    /**
+     * 同时回放的最大请求数，超出的请求排队，小于等于 0 表示不限制
+     */
+    private int maxConcurrency = 0;
+
+    /**
+     * 每个 token 的最大字符数，实际长度在 1 ~ maxTokenChars 之间随机
+     */
+    private int maxTokenChars = 4;
+
+    /**
+     * 路由请求返回的代码生成类型
+     */
+    private String codeGenType = "HTML";
+
+    /**
+     * 录制样本所在目录，相对路径基于启动目录；样本放在测试资源中，不打进生产包
+     */
+    private String transcriptDir = "src/test/resources/transcripts";
+
+    @Bean
+    public MockTranscripts mockTranscripts() {
+        return new MockTranscripts(new File(transcriptDir));
+    }
+
+    @Bean
+    public ChatModel openAiChatModel(MockTranscripts mockTranscripts) {
+        return new MockChatModel(mockTranscripts, this);
+    }
+
+    @Bean
+    public StreamingChatModel openAiStreamingChatModel(MockTranscripts mockTranscripts) {
+        return new MockStreamingChatModel(mockTranscripts, this);
+    }
+
+    @Bean
+    public StreamingChatModel reasoningStreamingChatModel(MockTranscripts mockTranscripts) {
+        return new MockStreamingChatModel(mockTranscripts, this);
+    }
+}
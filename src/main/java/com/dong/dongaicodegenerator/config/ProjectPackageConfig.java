@@ -0,0 +1,48 @@
+package com.dong.dongaicodegenerator.config;
+
+import com.dong.dongaicodegenerator.core.builder.VueProjectBuilder;
+import com.dong.dongaicodegenerator.utils.PathIgnoreMatcher;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 项目打包配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "project-package")
+@Data
+public class ProjectPackageConfig {
+
+    /**
+     * 打包下载时忽略的文件，规则格式见 {@link PathIgnoreMatcher}
+     */
+    private List<String> ignoredPatterns = new ArrayList<>(List.of(
+            "node_modules",
+            ".git",
+            "dist",
+            "build",
+            ".DS_store",
+            ".env",
+            "target",
+            ".mvn",
+            ".idea",
+            ".vscode",
+            "*.log",
+            "*.tmp",
+            "*.temp",
+            "*.cache"
+    ));
+
+    @Bean
+    public PathIgnoreMatcher projectIgnoreMatcher() {
+        List<String> patterns = new ArrayList<>(ignoredPatterns);
+        // 构建指纹文件属于构建结果，始终忽略
+        patterns.add(VueProjectBuilder.BUILD_FINGERPRINT_FILE);
+        return PathIgnoreMatcher.compile(patterns);
+    }
+}
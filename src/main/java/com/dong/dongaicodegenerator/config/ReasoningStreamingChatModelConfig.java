@@ -6,8 +6,10 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 @Configuration
+@Profile("!mock-model")
 @ConfigurationProperties(prefix = "langchain4j.open-ai.chat-model")
 @Data
 public class ReasoningStreamingChatModelConfig {
@@ -0,0 +1,69 @@
+package com.dong.dongaicodegenerator.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 网页截图配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "screenshot")
+@Data
+public class ScreenshotConfig {
+
+    /**
+     * 本地 ChromeDriver 可执行文件路径，配置后不再从镜像下载
+     */
+    private String chromeDriverPath;
+
+    /**
+     * 未配置本地路径时下载 ChromeDriver 使用的镜像地址
+     */
+    private String chromeDriverMirrorUrl = "https://npmmirror.com/mirrors/chromedriver/";
+
+    /**
+     * Chrome 浏览器可执行文件路径，为空时使用系统默认安装
+     */
+    private String chromeBinaryPath;
+
+    /**
+     * 应用就绪后在后台预热的浏览器实例数，为 0 表示不预热
+     */
+    private int warmUpDrivers = 1;
+
+    /**
+     * 浏览器实例上限，也是同时截图的并发上限
+     */
+    private int poolSize = 2;
+
+    /**
+     * 单个浏览器实例截图多少个页面后重建，避免长期运行导致内存膨胀
+     */
+    private int maxPagesPerDriver = 50;
+
+    /**
+     * 等待空闲浏览器的最长时间（毫秒），超时则本次截图失败
+     */
+    private long borrowTimeoutMs = 60000;
+
+    /**
+     * 浏览器窗口宽度
+     */
+    private int width = 1600;
+
+    /**
+     * 浏览器窗口高度
+     */
+    private int height = 900;
+
+    /**
+     * 页面加载超时时间（秒）
+     */
+    private int pageLoadTimeoutSeconds = 30;
+
+    /**
+     * 页面加载完成后等待字体和图片渲染的最长时间（毫秒）
+     */
+    private long renderTimeoutMs = 2000;
+}
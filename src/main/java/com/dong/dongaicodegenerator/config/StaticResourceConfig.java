@@ -0,0 +1,39 @@
+package com.dong.dongaicodegenerator.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 静态资源服务配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "static-resource")
+@Data
+public class StaticResourceConfig {
+
+    /**
+     * 元数据缓存的最大文件数
+     */
+    private long metadataCacheSize = 10000;
+
+    /**
+     * 内存缓存的总字节数上限
+     */
+    private long memoryCacheMaxBytes = 64 * 1024 * 1024;
+
+    /**
+     * 不大于该大小（字节）的文件内容缓存在内存中
+     */
+    private long memoryCacheMaxFileSize = 32 * 1024;
+
+    /**
+     * 不小于该大小（字节）的文件交给容器以 sendfile 方式发送，不经过应用内存拷贝
+     */
+    private long sendfileMinSize = 48 * 1024;
+
+    /**
+     * 预览文件的 gzip 压缩结果存放目录，启动时清空
+     */
+    private String gzipCacheDir = System.getProperty("user.dir") + "/temp/static_gzip";
+}
@@ -0,0 +1,30 @@
+package com.dong.dongaicodegenerator.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 流式输出合并配置
+ * 模型每次只输出几个字符，合并后再推送 SSE 可以大幅减少帧数和刷写次数
+ */
+@Configuration
+@ConfigurationProperties(prefix = "stream.coalesce")
+@Data
+public class StreamCoalesceConfig {
+
+    /**
+     * 是否开启合并，关闭时每个片段单独推送
+     */
+    private boolean enabled = true;
+
+    /**
+     * 片段在缓冲区中的最长停留时间（毫秒），决定合并带来的额外延迟
+     */
+    private long maxDelayMs = 40;
+
+    /**
+     * 缓冲区达到该字符数时立即推送
+     */
+    private int maxChars = 2048;
+}
@@ -0,0 +1,54 @@
+package com.dong.dongaicodegenerator.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Vue 项目构建配置
+ */
+@Configuration
+@ConfigurationProperties(prefix = "vue-build")
+@Data
+public class VueBuildConfig {
+
+    /**
+     * 是否开启依赖缓存，关闭时每个项目都完整执行 npm install
+     */
+    private boolean dependencyCacheEnabled = true;
+
+    /**
+     * 依赖缓存目录，按依赖哈希保存已安装好的 node_modules
+     */
+    private String dependencyCacheDir = System.getProperty("user.dir") + "/temp/npm_dependency_cache";
+
+    /**
+     * 最多保留的依赖组合数，超出时删除最久未使用的
+     */
+    private int maxDependencySets = 20;
+
+    /**
+     * npm 自身的下载缓存目录，缓存预热后可离线安装
+     */
+    private String npmCacheDir = System.getProperty("user.dir") + "/temp/npm_cache";
+
+    /**
+     * 同时构建的项目数上限
+     */
+    private int maxConcurrentBuilds = 2;
+
+    /**
+     * 部署时等待构建完成的最长时间（秒），包括排队时间
+     */
+    private int deployWaitSeconds = 600;
+
+    /**
+     * npm install 超时时间（秒）
+     */
+    private int installTimeoutSeconds = 300;
+
+    /**
+     * npm run build 超时时间（秒）
+     */
+    private int buildTimeoutSeconds = 180;
+}
@@ -22,6 +22,16 @@ public interface AppConstant {
      */
     String CODE_DEPLOY_ROOT_DIR = System.getProperty("user.dir") + "/temp/code_deploy";
 
+    /**
+     * 应用部署版本目录，部署目录下的 {deployKey} 是指向其中某个版本的符号链接
+     */
+    String CODE_DEPLOY_RELEASE_ROOT_DIR = System.getProperty("user.dir") + "/temp/code_deploy_releases";
+
+    /**
+     * 项目下载归档的缓存目录，按项目内容指纹保存打包好的 zip
+     */
+    String CODE_DOWNLOAD_CACHE_ROOT_DIR = System.getProperty("user.dir") + "/temp/code_download_cache";
+
     /**
      * 应用部署域名
      */
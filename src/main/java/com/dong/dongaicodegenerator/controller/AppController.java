@@ -1,18 +1,20 @@
 package com.dong.dongaicodegenerator.controller;
 
 import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
-import cn.hutool.json.JSONUtil;
 import com.dong.dongaicodegenerator.annotation.AuthCheck;
 import com.dong.dongaicodegenerator.common.BaseResponse;
 import com.dong.dongaicodegenerator.common.DeleteRequest;
 import com.dong.dongaicodegenerator.common.ResultUtils;
 import com.dong.dongaicodegenerator.constant.AppConstant;
 import com.dong.dongaicodegenerator.constant.UserConstant;
+import com.dong.dongaicodegenerator.core.builder.VueBuildProgressTracker;
 import com.dong.dongaicodegenerator.exception.BusinessException;
 import com.dong.dongaicodegenerator.exception.ErrorCode;
 import com.dong.dongaicodegenerator.exception.ThrowUtils;
+import com.dong.dongaicodegenerator.manager.FeaturedAppManager;
 import com.dong.dongaicodegenerator.model.dto.*;
 import com.dong.dongaicodegenerator.model.entity.User;
 import com.dong.dongaicodegenerator.model.enums.CodeGenTypeEnum;
@@ -20,15 +22,18 @@ import com.dong.dongaicodegenerator.model.enums.UserRoleEnum;
 import com.dong.dongaicodegenerator.model.vo.AppVO;
 import com.dong.dongaicodegenerator.service.ProjectDownloadService;
 import com.dong.dongaicodegenerator.service.UserService;
+import com.dong.dongaicodegenerator.utils.SseEventUtils;
 import com.mybatisflex.core.paginate.Page;
-import com.mybatisflex.core.query.QueryWrapper;
 import jakarta.annotation.Resource;
 import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
 import lombok.Getter;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.beans.factory.annotation.Autowired;
 import com.dong.dongaicodegenerator.model.entity.App;
 import com.dong.dongaicodegenerator.service.AppService;
@@ -36,9 +41,9 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 import java.util.function.Function;
 
 /**
@@ -56,6 +61,10 @@ public class AppController {
     private UserService userService;
     @Resource
     private ProjectDownloadService projectDownloadService;
+    @Resource
+    private VueBuildProgressTracker vueBuildProgressTracker;
+    @Resource
+    private FeaturedAppManager featuredAppManager;
 
 
     /**
@@ -161,13 +170,7 @@ public class AppController {
         int pageSize = appQueryRequest.getPageSize();
         ThrowUtils.throwIf(pageSize > 20, ErrorCode.OPERATION_ERROR, "单页数据量过大");
         appQueryRequest.setUserId(loginUser.getId());
-        QueryWrapper queryWrapper = appService.getQueryWrapper(appQueryRequest);
-        Page<App> page = appService.page(Page.of(appQueryRequest.getPageNum()
-                , appQueryRequest.getPageSize()), queryWrapper);
-        Page<AppVO> appVOPage = new Page<>(appQueryRequest.getPageNum(), pageSize, page.getTotalRow());
-        List<AppVO> appVOList = appService.getAppVOList(page.getRecords());
-        appVOPage.setRecords(appVOList);
-        return ResultUtils.success(appVOPage);
+        return ResultUtils.success(appService.listAppVOByPage(appQueryRequest));
     }
 
 
@@ -181,15 +184,14 @@ public class AppController {
     public BaseResponse<Page<AppVO>> listHighQualityAppVOPage(@RequestBody AppQueryRequest appQueryRequest) {
         ThrowUtils.throwIf(ObjectUtil.isNull(appQueryRequest), ErrorCode.PARAMS_ERROR, "参数错误");
         int pageSize = appQueryRequest.getPageSize();
-        int pageNum = appQueryRequest.getPageNum();
         ThrowUtils.throwIf(pageSize > 20, ErrorCode.OPERATION_ERROR, "单页数据量过大");
         appQueryRequest.setPriority(AppConstant.GOOD_APP_PRIORITY);
-        QueryWrapper queryWrapper = appService.getQueryWrapper(appQueryRequest);
-        Page<App> page = appService.page(Page.of(pageNum, pageSize), queryWrapper);
-        Page<AppVO> appVOPage = new Page<>(pageNum, pageSize, page.getTotalRow());
-        List<AppVO> appVOList = appService.getAppVOList(page.getRecords());
-        appVOPage.setRecords(appVOList);
-        return ResultUtils.success(appVOPage);
+        // 优先从内存快照分页，快照不支持的查询条件再查库
+        Page<AppVO> snapshotPage = featuredAppManager.getPage(appQueryRequest);
+        if (snapshotPage != null) {
+            return ResultUtils.success(snapshotPage);
+        }
+        return ResultUtils.success(appService.listAppVOByPage(appQueryRequest));
     }
 
     /**
@@ -248,15 +250,8 @@ public class AppController {
     @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
     public BaseResponse<Page<AppVO>> listAppVOByPageByAdmin(@RequestBody AppQueryRequest appQueryRequest) {
         ThrowUtils.throwIf(appQueryRequest == null, ErrorCode.PARAMS_ERROR);
-        long pageNum = appQueryRequest.getPageNum();
-        long pageSize = appQueryRequest.getPageSize();
-        QueryWrapper queryWrapper = appService.getQueryWrapper(appQueryRequest);
-        Page<App> appPage = appService.page(Page.of(pageNum, pageSize), queryWrapper);
-        // 数据封装
-        Page<AppVO> appVOPage = new Page<>(pageNum, pageSize, appPage.getTotalRow());
-        List<AppVO> appVOList = appService.getAppVOList(appPage.getRecords());
-        appVOPage.setRecords(appVOList);
-        return ResultUtils.success(appVOPage);
+        ThrowUtils.throwIf(appQueryRequest.getPageSize() > 50, ErrorCode.OPERATION_ERROR, "单页数据量过大");
+        return ResultUtils.success(appService.listAppVOByPage(appQueryRequest));
     }
 
 
@@ -296,11 +291,7 @@ public class AppController {
         return generatedCodeFlux.map(new Function<String, ServerSentEvent<String>>() {
             @Override
             public ServerSentEvent<String> apply(String codeChunk) {
-                Map<String, String> wrapper = Map.of("d", codeChunk);
-                String jsonStr = JSONUtil.toJsonStr(wrapper);
-                return ServerSentEvent.<String>builder()
-                        .data(jsonStr)
-                        .build();
+                return toServerSentEvent(codeChunk);
             }
         }).concatWith(Mono.just(
                 ServerSentEvent.<String>builder()
@@ -310,6 +301,51 @@ public class AppController {
         )));
     }
 
+    /**
+     * 将代码片段包装为 SSE 事件，使用 {"d": 片段} 的 JSON 格式避免换行等字符破坏 SSE 协议
+     *
+     * @param codeChunk 代码片段
+     * @return SSE 事件
+     */
+    static ServerSentEvent<String> toServerSentEvent(String codeChunk) {
+        return ServerSentEvent.<String>builder()
+                .data(SseEventUtils.encodeChunk(codeChunk))
+                .build();
+    }
+
+    /**
+     * 订阅 Vue 工程应用最近一次构建的进度
+     * 事件类型为 phase（阶段切换）、log（npm 输出的一行）和 done（构建结果），数据格式与代码生成接口一致
+     *
+     * @param appId   应用 ID
+     * @param request HTTP 请求
+     * @return 构建进度事件流
+     */
+    @GetMapping(value = "/build/log", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> watchBuildProgress(@RequestParam Long appId, HttpServletRequest request) {
+        ThrowUtils.throwIf(appId == null || appId <= 0, ErrorCode.PARAMS_ERROR, "应用 ID 不能为空");
+        App app = appService.getById(appId);
+        ThrowUtils.throwIf(ObjectUtil.isNull(app), ErrorCode.NOT_FOUND_ERROR, "应用不存在");
+        User loginUser = userService.getLoginUser(request);
+        if (!app.getUserId().equals(loginUser.getId())) {
+            throw new BusinessException(ErrorCode.NO_AUTH_ERROR, "无权限查看该应用的构建进度");
+        }
+        ThrowUtils.throwIf(CodeGenTypeEnum.getEnumByValue(app.getCodeGenType()) != CodeGenTypeEnum.VUE_PROJECT,
+                ErrorCode.PARAMS_ERROR, "只有 Vue 工程应用需要构建");
+        String projectPath = AppConstant.CODE_OUTPUT_ROOT_DIR + File.separator
+                + CodeGenTypeEnum.VUE_PROJECT.getValue() + "_" + appId;
+        return vueBuildProgressTracker.watch(projectPath)
+                .map(progressEvent -> ServerSentEvent.<String>builder()
+                        .event(progressEvent.getEvent())
+                        .data(SseEventUtils.encodeChunk(progressEvent.getData()))
+                        .build())
+                // 没有构建记录时直接结束
+                .switchIfEmpty(Mono.just(ServerSentEvent.<String>builder()
+                        .event(VueBuildProgressTracker.EVENT_DONE)
+                        .data(SseEventUtils.encodeChunk("idle"))
+                        .build()));
+    }
+
     /**
      * 应用部署
      *
@@ -332,12 +368,13 @@ public class AppController {
 
     /**
      * 下载应用代码
+     * 项目未变化时直接发送缓存的归档，支持 Range 断点续传
      * @param appId
      * @param request
-     * @param response
+     * @return zip 文件
      */
     @GetMapping("/download")
-    public void downloadApp(Long appId, HttpServletRequest request, HttpServletResponse response) {
+    public ResponseEntity<?> downloadApp(Long appId, HttpServletRequest request) {
         if (ObjectUtil.isNull(appId) || appId <= 0) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "App ID 不合法");
         }
@@ -355,7 +392,23 @@ public class AppController {
             throw new BusinessException(ErrorCode.NOT_FOUND_ERROR, "目录不存在请先生成代码");
         }
         String downloadFileName = String.valueOf(appId);
-        projectDownloadService.downloadProjectAsZip(sourceDirPath, downloadFileName, response);
+        File archive = projectDownloadService.getProjectArchive(sourceDirPath);
+        // 归档文件名包含内容指纹，作为 ETag 供断点续传时校验文件未变化；Content-Length 和 Range 分段由 Spring 处理
+        String eTag = "\"" + FileUtil.mainName(archive) + "\"";
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/zip"))
+                .header(HttpHeaders.CONTENT_DISPOSITION, String.format("attachment; filename=\"%s.zip\"", downloadFileName))
+                .header(HttpHeaders.ACCEPT_RANGES, "bytes")
+                .eTag(eTag);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (request.getHeader(HttpHeaders.RANGE) != null && ifRange != null && !eTag.equals(ifRange)) {
+            // Spring 的 Range 处理不检查 If-Range：项目已变化时续传的分段会来自另一个归档。
+            // 此时返回完整文件，StreamingResponseBody 不是 Resource，不会被按 Range 分段
+            return responseBuilder
+                    .contentLength(archive.length())
+                    .body((StreamingResponseBody) outputStream -> Files.copy(archive.toPath(), outputStream));
+        }
+        return responseBuilder.body(new FileSystemResource(archive));
     }
 
 
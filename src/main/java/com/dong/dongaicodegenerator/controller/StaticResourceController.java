@@ -1,10 +1,14 @@
 package com.dong.dongaicodegenerator.controller;
 
 
+import com.dong.dongaicodegenerator.config.StaticResourceConfig;
 import com.dong.dongaicodegenerator.constant.AppConstant;
+import com.dong.dongaicodegenerator.manager.StaticResourceManager;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.io.AbstractResource;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.core.io.Resource;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -12,9 +16,13 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.servlet.HandlerMapping;
 
-import java.io.File;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 
 @RestController
 @RequestMapping("/static")
@@ -25,15 +33,31 @@ public class StaticResourceController {
     // 应用生成根目录（用于浏览）
     // private static final String PREVIEW_ROOT_DIR = System.getProperty("user.dir") + "/temp/code_output";
 
+    /**
+     * Tomcat 的 sendfile 请求属性，设置后由容器直接把文件写入 socket
+     */
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_FILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_FILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    @jakarta.annotation.Resource
+    private StaticResourceManager staticResourceManager;
+
+    @jakarta.annotation.Resource
+    private StaticResourceConfig staticResourceConfig;
 
     /**
      * 提供静态资源访问，支持目录重定向
      * 访问格式：http://localhost:8123/api/static/{deployKey}[/{fileName}]
+     * 响应带强 ETag 和 Last-Modified，预览内容随时会变，要求浏览器每次重新验证，未变化时返回 304；
+     * 支持 Range 请求，客户端接受 gzip 时发送预压缩的版本，小文件从内存缓存发送，大文件由容器以 sendfile 方式发送
      */
     @GetMapping("/{deployKey}/**")
     public ResponseEntity<Resource> serveStaticResource(
             @PathVariable String deployKey,
-            HttpServletRequest request) {
+            HttpServletRequest request,
+            ServletWebRequest webRequest) {
         try {
             // 获取资源路径
             String resourcePath = (String) request.getAttribute(HandlerMapping
@@ -46,35 +70,120 @@ public class StaticResourceController {
                 return new ResponseEntity<>(headers, HttpStatus.MOVED_PERMANENTLY);
             }
             // 默认返回 index.html
-            if (resourcePath.equals("/")) {
-                resourcePath = "/index.html";
+            if (resourcePath.endsWith("/")) {
+                resourcePath = resourcePath + "index.html";
             }
-            // 构建文件路径
-            String filePath = PREVIEW_ROOT_DIR + "/" + deployKey + resourcePath;
-            File file = new File(filePath);
+            StaticResourceManager.StaticFile staticFile = staticResourceManager.resolve(
+                    Paths.get(PREVIEW_ROOT_DIR), deployKey + resourcePath);
             // 检查文件是否存在
-            if (!file.exists()) {
+            if (staticFile == null) {
                 return ResponseEntity.notFound().build();
             }
-            // 返回文件资源
-            Resource resource = new FileSystemResource(file);
-            return ResponseEntity.ok()
-                    .header("Content-Type", getContentTypeWithCharset(filePath))
-                    .body(resource);
+            boolean isRangeRequest = request.getHeader(HttpHeaders.RANGE) != null;
+            boolean useGzip = staticFile.getGzipPath() != null && !isRangeRequest && acceptsGzip(request);
+            String etag = useGzip ? staticFile.getGzipEtag() : staticFile.getEtag();
+            // 条件请求：ETag 或修改时间匹配时返回 304，同时写入 ETag 和 Last-Modified 响应头
+            if (webRequest.checkNotModified(etag, staticFile.getLastModified())) {
+                return null;
+            }
+            ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                    .contentType(staticFile.getContentType())
+                    .cacheControl(CacheControl.noCache())
+                    .header(HttpHeaders.ACCEPT_RANGES, "bytes");
+            if (staticFile.getGzipPath() != null) {
+                builder.header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            }
+            if (useGzip) {
+                builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            // 小文件直接从内存缓存发送，Content-Length 由 Spring 按 Resource 长度或 Range 分段写入
+            ByteBuffer content = staticResourceManager.getContent(staticFile, useGzip);
+            if (content != null) {
+                return builder.body(new ByteBufferResource(content));
+            }
+            if (useGzip) {
+                return builder.contentLength(staticFile.getGzipSize())
+                        .body(new FileSystemResource(staticFile.getGzipPath()));
+            }
+            if (!isRangeRequest && "GET".equals(request.getMethod())
+                    && staticFile.getSize() >= staticResourceConfig.getSendfileMinSize()
+                    && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+                setSendfileAttributes(request, staticFile.getPath(), staticFile.getSize());
+                return builder.contentLength(staticFile.getSize()).build();
+            }
+            // Range 请求由 Spring 按 Resource 拆分为 206 分段响应
+            return builder.body(new FileSystemResource(staticFile.getPath()));
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    private boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        return acceptEncoding != null && acceptEncoding.contains("gzip");
+    }
+
+    /**
+     * 交给容器以 sendfile 方式发送整个文件，响应体不再经过应用
+     */
+    private void setSendfileAttributes(HttpServletRequest request, Path path, long size) {
+        request.setAttribute(SENDFILE_FILENAME_ATTR, path.toAbsolutePath().toString());
+        request.setAttribute(SENDFILE_FILE_START_ATTR, 0L);
+        request.setAttribute(SENDFILE_FILE_END_ATTR, size);
+    }
+
     /**
-     * 根据文件扩展名返回带字符编码的 Content-Type
+     * 以内存中的文件内容作为响应体，Range 请求时由 Spring 按需跳过前面的字节
      */
-    private String getContentTypeWithCharset(String filePath) {
-        if (filePath.endsWith(".html")) return "text/html; charset=UTF-8";
-        if (filePath.endsWith(".css")) return "text/css; charset=UTF-8";
-        if (filePath.endsWith(".js")) return "application/javascript; charset=UTF-8";
-        if (filePath.endsWith(".png")) return "image/png";
-        if (filePath.endsWith(".jpg")) return "image/jpeg";
-        return "application/octet-stream";
+    private static class ByteBufferResource extends AbstractResource {
+
+        private final ByteBuffer content;
+
+        private ByteBufferResource(ByteBuffer content) {
+            this.content = content;
+        }
+
+        @Override
+        public String getDescription() {
+            return "ByteBuffer resource [" + content.remaining() + " bytes]";
+        }
+
+        @Override
+        public long contentLength() {
+            return content.remaining();
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            ByteBuffer buffer = content.duplicate();
+            return new InputStream() {
+                @Override
+                public int read() {
+                    return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+                }
+
+                @Override
+                public int read(byte[] bytes, int offset, int length) {
+                    if (!buffer.hasRemaining()) {
+                        return -1;
+                    }
+                    int count = Math.min(length, buffer.remaining());
+                    buffer.get(bytes, offset, count);
+                    return count;
+                }
+
+                @Override
+                public long skip(long n) {
+                    int count = (int) Math.min(Math.max(n, 0), buffer.remaining());
+                    buffer.position(buffer.position() + count);
+                    return count;
+                }
+
+                @Override
+                public int available() {
+                    return buffer.remaining();
+                }
+            };
+        }
     }
 }
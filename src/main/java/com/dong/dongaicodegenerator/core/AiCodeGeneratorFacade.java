@@ -2,19 +2,22 @@ package com.dong.dongaicodegenerator.core;
 
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.StrUtil;
-import cn.hutool.json.JSONUtil;
 import com.dong.dongaicodegenerator.ai.AiCodeGeneratorService;
 import com.dong.dongaicodegenerator.ai.AiCodeGeneratorServiceFactory;
 import com.dong.dongaicodegenerator.ai.model.HtmlCodeResult;
 import com.dong.dongaicodegenerator.ai.model.MultiFileCodeResult;
 import com.dong.dongaicodegenerator.ai.model.message.AiResponseMessage;
+import com.dong.dongaicodegenerator.ai.model.message.StreamMessage;
 import com.dong.dongaicodegenerator.ai.model.message.ToolExecutedMessage;
 import com.dong.dongaicodegenerator.ai.model.message.ToolRequestMessage;
 import com.dong.dongaicodegenerator.exception.BusinessException;
 import com.dong.dongaicodegenerator.exception.ErrorCode;
+import com.dong.dongaicodegenerator.manager.StaticResourceManager;
 import com.dong.dongaicodegenerator.model.enums.CodeGenTypeEnum;
 import com.dong.dongaicodegenerator.core.parser.CodeParserExecutor;
+import com.dong.dongaicodegenerator.core.parser.StreamingCodeParser;
 import com.dong.dongaicodegenerator.core.saver.CodeFileSaverExecutor;
+import com.dong.dongaicodegenerator.core.saver.StreamingCodeFileSaver;
 import dev.langchain4j.model.chat.response.ChatResponse;
 import dev.langchain4j.service.TokenStream;
 import dev.langchain4j.service.tool.ToolExecution;
@@ -36,6 +39,9 @@ public class AiCodeGeneratorFacade {
     @Resource
     private AiCodeGeneratorServiceFactory aiCodeGeneratorServiceFactory;
 
+    @Resource
+    private StaticResourceManager staticResourceManager;
+
     /**
      * 生成代码并保存文件的统一入口
      * @param prompt
@@ -46,22 +52,30 @@ public class AiCodeGeneratorFacade {
         if (StrUtil.isBlank(prompt) || ObjectUtil.isNull(codeGenTypeEnum)) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数异常，提示词或代码生成类型不能为空");
         }
-        // 根据 appId 获取对应的 AiCodeGeneratorService 服务实例
+        // 获取对应生成类型的 AiCodeGeneratorService 服务实例，对话记忆按 appId 隔离
         AiCodeGeneratorService aiCodeGeneratorService = aiCodeGeneratorServiceFactory
-                .getAiCodeGeneratorService(appId, codeGenTypeEnum);
-        return switch (codeGenTypeEnum) {
-            case HTML -> {
-                HtmlCodeResult htmlCodeResult = aiCodeGeneratorService.generateHtmlCode(prompt);
-                yield CodeFileSaverExecutor.saveCodeFileExecutor(htmlCodeResult, CodeGenTypeEnum.HTML, appId);
-            }
-            case MULTI_FILE ->  {
-                MultiFileCodeResult multiFileCodeResult = aiCodeGeneratorService.generateMultiFleCode(prompt);
-                yield CodeFileSaverExecutor.saveCodeFileExecutor(multiFileCodeResult, CodeGenTypeEnum.MULTI_FILE, appId);
-            }
-            default -> {
-                throw new BusinessException(ErrorCode.OPERATION_ERROR, "不支持的代码生成类型：" + codeGenTypeEnum);
-            }
-        };
+                .getAiCodeGeneratorService(codeGenTypeEnum);
+        File codeDir;
+        try {
+            codeDir = switch (codeGenTypeEnum) {
+                case HTML -> {
+                    HtmlCodeResult htmlCodeResult = aiCodeGeneratorService.generateHtmlCode(appId, prompt);
+                    yield CodeFileSaverExecutor.saveCodeFileExecutor(htmlCodeResult, CodeGenTypeEnum.HTML, appId);
+                }
+                case MULTI_FILE ->  {
+                    MultiFileCodeResult multiFileCodeResult = aiCodeGeneratorService.generateMultiFleCode(appId, prompt);
+                    yield CodeFileSaverExecutor.saveCodeFileExecutor(multiFileCodeResult, CodeGenTypeEnum.MULTI_FILE, appId);
+                }
+                default -> {
+                    throw new BusinessException(ErrorCode.OPERATION_ERROR, "不支持的代码生成类型：" + codeGenTypeEnum);
+                }
+            };
+        } finally {
+            aiCodeGeneratorServiceFactory.releaseChatMemory(codeGenTypeEnum, appId);
+        }
+        // 目录已被重写，释放预览缓存中的旧内容
+        staticResourceManager.invalidateDirectory(codeDir.toPath());
+        return codeDir;
     }
 
     /**
@@ -70,25 +84,29 @@ public class AiCodeGeneratorFacade {
      * @param codeGenTypeEnum
      * @return
      */
-    public Flux<String> generateCodeAndSaveWithStream(String prompt, CodeGenTypeEnum codeGenTypeEnum, Long appId) {
+    public Flux<StreamMessage> generateCodeAndSaveWithStream(String prompt, CodeGenTypeEnum codeGenTypeEnum, Long appId) {
         if (StrUtil.isBlank(prompt) || ObjectUtil.isNull(codeGenTypeEnum)) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "参数异常，提示词或代码生成类型不能为空");
         }
         AiCodeGeneratorService aiCodeGeneratorService = aiCodeGeneratorServiceFactory
-                .getAiCodeGeneratorService(appId, codeGenTypeEnum);
+                .getAiCodeGeneratorService(codeGenTypeEnum);
+        Flux<StreamMessage> messageFlux;
         if (codeGenTypeEnum.equals(CodeGenTypeEnum.HTML)) {
-            Flux<String> htmlCodeStream = aiCodeGeneratorService.generateHtmlCodeStream(prompt);
-            return processCodeGenerationStream(htmlCodeStream, CodeGenTypeEnum.HTML, appId);
+            Flux<String> htmlCodeStream = aiCodeGeneratorService.generateHtmlCodeStream(appId, prompt);
+            messageFlux = processCodeGenerationStream(htmlCodeStream, CodeGenTypeEnum.HTML, appId);
         } else if (codeGenTypeEnum.equals(CodeGenTypeEnum.VUE_PROJECT)) {
             TokenStream generateVueProjectCodeStream = aiCodeGeneratorService
                     .generateVueProjectCodeStream(appId, prompt);
-            return processTokenStream(generateVueProjectCodeStream);
+            messageFlux = processTokenStream(generateVueProjectCodeStream);
         } else if (codeGenTypeEnum.equals(CodeGenTypeEnum.MULTI_FILE)) {
-            Flux<String> multiFileCodeStream = aiCodeGeneratorService.generateMultiFileCodeStream(prompt);
-            return processCodeGenerationStream(multiFileCodeStream, CodeGenTypeEnum.MULTI_FILE, appId);
+            Flux<String> multiFileCodeStream = aiCodeGeneratorService.generateMultiFileCodeStream(appId, prompt);
+            messageFlux = processCodeGenerationStream(multiFileCodeStream, CodeGenTypeEnum.MULTI_FILE, appId);
         } else {
             throw new BusinessException(ErrorCode.OPERATION_ERROR, "不支持的代码生成类型：" + codeGenTypeEnum);
         }
+        // 流结束后 AI 回复已写入记忆，释放该 appId 的记忆对象
+        return messageFlux.doFinally(signalType ->
+                aiCodeGeneratorServiceFactory.releaseChatMemory(codeGenTypeEnum, appId));
     }
 
     /**
@@ -97,52 +115,66 @@ public class AiCodeGeneratorFacade {
      * @param codeGenTypeEnum
      * @return
      */
-    private Flux<String> processCodeGenerationStream(Flux<String> codeGenerationFlux, CodeGenTypeEnum codeGenTypeEnum, Long appId) {
+    private Flux<StreamMessage> processCodeGenerationStream(Flux<String> codeGenerationFlux, CodeGenTypeEnum codeGenTypeEnum, Long appId) {
         if (ObjectUtil.isNull(codeGenTypeEnum)) {
             throw new BusinessException(ErrorCode.PARAMS_ERROR, "代码生成类型不能为空");
         }
-        StringBuilder codeBuilder = new StringBuilder();
+        // 边接收边解析代码块，代码块内容实时写入临时文件，闭合时原子替换为正式文件
+        StreamingCodeFileSaver streamingCodeFileSaver = CodeFileSaverExecutor.openStreamingSaver(codeGenTypeEnum, appId);
+        StreamingCodeParser streamingCodeParser = new StreamingCodeParser(streamingCodeFileSaver);
         return codeGenerationFlux
                 .doOnNext(new Consumer<String>() {
                     @Override
                     public void accept(String s) {
-                        codeBuilder.append(s);
+                        streamingCodeParser.feed(s);
                     }
                 })
                 .doOnComplete(new Runnable() {
                     @Override
                     public void run() {
                         try {
-                            String completedCode = codeBuilder.toString();
-                            Object codeResult = CodeParserExecutor.executeCodeParser(completedCode, codeGenTypeEnum);
-                            File codeFile = CodeFileSaverExecutor.saveCodeFileExecutor(codeResult, codeGenTypeEnum, appId);
-                            log.info("代码文件保存成功：" + codeFile.getAbsolutePath());
+                            streamingCodeParser.finish();
+                            if (streamingCodeFileSaver.getSavedFileNames().isEmpty()) {
+                                // 没有任何代码块时（如直接返回 HTML），按原有逻辑兜底解析并保存
+                                Object codeResult = CodeParserExecutor.executeStreamingCodeParser(streamingCodeParser, codeGenTypeEnum);
+                                File codeFile = CodeFileSaverExecutor.saveCodeFileExecutor(codeResult, codeGenTypeEnum, appId);
+                                log.info("代码文件保存成功：" + codeFile.getAbsolutePath());
+                                staticResourceManager.invalidateDirectory(codeFile.toPath());
+                                return;
+                            }
+                            log.info("代码文件保存成功：{}，文件：{}", streamingCodeFileSaver.getDir().getAbsolutePath(),
+                                    streamingCodeFileSaver.getSavedFileNames());
+                            staticResourceManager.invalidateDirectory(streamingCodeFileSaver.getDir().toPath());
                         } catch (Exception e) {
                             log.error("代码文件保存失败", e);
                         }
                     }
-                });
+                })
+                .doOnError(error -> streamingCodeFileSaver.abort())
+                .doOnCancel(streamingCodeFileSaver::abort)
+                .<StreamMessage>map(AiResponseMessage::new);
     }
 
     /**
-     * 将 TokenStream 转换为 Flux<String>，并传递工具调用信息
+     * 将 TokenStream 转换为 Flux<StreamMessage>，并传递工具调用信息
+     * 消息直接以对象形式下发，不在每个 token 上做 JSON 序列化
      *
      * @param tokenStream TokenStream 对象
-     * @return Flux<String> 流式响应
+     * @return Flux<StreamMessage> 流式响应
      */
-    private Flux<String> processTokenStream(TokenStream tokenStream) {
+    private Flux<StreamMessage> processTokenStream(TokenStream tokenStream) {
         return Flux.create(sink -> {
             tokenStream.onPartialResponse((String partialResponse) -> {
                         AiResponseMessage aiResponseMessage = new AiResponseMessage(partialResponse);
-                        sink.next(JSONUtil.toJsonStr(aiResponseMessage));
+                        sink.next(aiResponseMessage);
                     })
                     .onPartialToolExecutionRequest((index, toolExecutionRequest) -> {
                         ToolRequestMessage toolRequestMessage = new ToolRequestMessage(toolExecutionRequest);
-                        sink.next(JSONUtil.toJsonStr(toolRequestMessage));
+                        sink.next(toolRequestMessage);
                     })
                     .onToolExecuted((ToolExecution toolExecution) -> {
                         ToolExecutedMessage toolExecutedMessage = new ToolExecutedMessage(toolExecution);
-                        sink.next(JSONUtil.toJsonStr(toolExecutedMessage));
+                        sink.next(toolExecutedMessage);
                     })
                     .onCompleteResponse((ChatResponse response) -> {
                         sink.complete();
@@ -209,7 +241,7 @@ public class AiCodeGeneratorFacade {
 //     */
 //    private Flux<String> generateHtmlCodeWithStream(String prompt) {
 //        ThrowUtils.throwIf(StrUtil.isEmpty(prompt), ErrorCode.PARAMS_ERROR, "提示词不能为空");
-//        Flux<String> result = aiCodeGeneratorService.generateHtmlCodeStream(prompt);
+//        Flux<String> result = aiCodeGeneratorService.generateHtmlCodeStream(appId, prompt);
 //        // 用户不断拼接流式调用 AI 返回的代码，所用代码生成完以后再进行保存
 //        StringBuilder codeBuilder = new StringBuilder();
 //        return result.doOnNext(new Consumer<String>() {
@@ -239,7 +271,7 @@ public class AiCodeGeneratorFacade {
 //     */
 //    private Flux<String> generateMultiFileCodeWithStream(String prompt) {
 //        ThrowUtils.throwIf(StrUtil.isEmpty(prompt), ErrorCode.PARAMS_ERROR, "提示词不能为空");
-//        Flux<String> result = aiCodeGeneratorService.generateMultiFileCodeStream(prompt);
+//        Flux<String> result = aiCodeGeneratorService.generateMultiFileCodeStream(appId, prompt);
 //        StringBuilder codeBuilder = new StringBuilder();
 //        return result.doOnNext(new Consumer<String>() {
 //            @Override
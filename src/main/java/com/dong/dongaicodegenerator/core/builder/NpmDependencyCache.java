@@ -0,0 +1,215 @@
+package com.dong.dongaicodegenerator.core.builder;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.RandomUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.dong.dongaicodegenerator.config.VueBuildConfig;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * npm 依赖缓存
+ * 以 package.json 中的依赖声明计算哈希，相同依赖的项目共用一份安装好的 node_modules：
+ * 命中时把缓存中的文件以硬链接的方式放入项目，未命中时执行 npm install 并把结果存入缓存。
+ * 安装生成的 package-lock.json 随缓存保存，命中时一并放入项目。
+ * 项目内的 node_modules 记录了对应的依赖哈希，依赖未变化的重复构建直接跳过安装
+ */
+@Slf4j
+@Component
+public class NpmDependencyCache {
+
+    /**
+     * 项目 node_modules 中记录依赖哈希的文件
+     */
+    static final String DEPENDENCY_HASH_FILE = ".dependency-hash";
+
+    private static final String NODE_MODULES = "node_modules";
+
+    private static final String PACKAGE_LOCK = "package-lock.json";
+
+    @Resource
+    private VueBuildConfig vueBuildConfig;
+
+    /**
+     * 安装锁的分段数
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * 按依赖哈希分段的安装锁，相同依赖的安装串行执行，后到的项目等待前一个安装完成后直接命中缓存；
+     * 锁的数量固定，不随依赖组合数增长
+     */
+    private final ReentrantLock[] installLocks = Stream.generate(ReentrantLock::new)
+            .limit(LOCK_STRIPES)
+            .toArray(ReentrantLock[]::new);
+
+    /**
+     * 为项目准备依赖
+     *
+     * @param projectDir 项目目录
+     * @param npmInstall 未命中缓存时执行的安装操作，返回是否成功
+     * @return 是否成功
+     */
+    public boolean installDependencies(File projectDir, Predicate<File> npmInstall) {
+        String dependencyHash = computeDependencyHash(projectDir);
+        Path projectNodeModules = projectDir.toPath().resolve(NODE_MODULES);
+        String installedHash = readDependencyHash(projectNodeModules);
+        if (dependencyHash.equals(installedHash)) {
+            log.info("依赖未变化，跳过安装: {}", projectDir.getAbsolutePath());
+            return true;
+        }
+        ReentrantLock lock = installLocks[Math.floorMod(dependencyHash.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            Path cachedNodeModules = Paths.get(vueBuildConfig.getDependencyCacheDir(), dependencyHash, NODE_MODULES);
+            if (Files.isDirectory(cachedNodeModules)) {
+                long start = System.currentTimeMillis();
+                FileUtil.del(projectNodeModules);
+                linkTree(cachedNodeModules, projectNodeModules);
+                copyLockFileIfAbsent(cachedNodeModules.getParent(), projectDir.toPath());
+                // 更新修改时间，用于按最近使用淘汰
+                Files.setLastModifiedTime(cachedNodeModules.getParent(), FileTime.fromMillis(System.currentTimeMillis()));
+                writeDependencyHash(projectNodeModules, dependencyHash);
+                log.info("命中依赖缓存 {}，链接耗时 {} ms", dependencyHash, System.currentTimeMillis() - start);
+                return true;
+            }
+            if (installedHash != null) {
+                // 项目中是从缓存链接来的旧依赖，不能让 npm 在其上修改，先删除
+                FileUtil.del(projectNodeModules);
+            }
+            if (!npmInstall.test(projectDir)) {
+                return false;
+            }
+            store(projectDir.toPath(), dependencyHash);
+            writeDependencyHash(projectNodeModules, dependencyHash);
+            return true;
+        } catch (IOException e) {
+            // 缓存出错不影响构建，退化为直接安装
+            log.error("使用依赖缓存失败，直接安装依赖: {}", projectDir.getAbsolutePath(), e);
+            FileUtil.del(projectNodeModules);
+            return npmInstall.test(projectDir);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 计算依赖哈希：只取 package.json 中影响安装结果的字段（按键排序），项目名称、脚本等字段不同的项目可以共用缓存。
+     * lock 文件不参与计算，npm install 会在项目中生成 lock 文件，参与计算会使同一项目前后两次构建的哈希不一致
+     */
+    String computeDependencyHash(File projectDir) {
+        JSONObject packageJson = JSONUtil.parseObj(FileUtil.readUtf8String(new File(projectDir, "package.json")));
+        StringBuilder builder = new StringBuilder();
+        for (String field : List.of("dependencies", "devDependencies", "optionalDependencies", "overrides", "engines")) {
+            JSONObject value = packageJson.getJSONObject(field);
+            Map<String, Object> sorted = value == null ? Map.of() : new TreeMap<>(value);
+            builder.append(field).append('=').append(JSONUtil.toJsonStr(sorted)).append('\n');
+        }
+        return DigestUtil.sha256Hex(builder.toString());
+    }
+
+    /**
+     * 把安装好的 node_modules 存入缓存：先链接到临时目录，完成后原子重命名，再淘汰多余的缓存
+     */
+    private void store(Path projectDir, String dependencyHash) throws IOException {
+        Path cacheRoot = Paths.get(vueBuildConfig.getDependencyCacheDir());
+        Path stagingDir = cacheRoot.resolve(dependencyHash + ".tmp-" + RandomUtil.randomString(6));
+        try {
+            linkTree(projectDir.resolve(NODE_MODULES), stagingDir.resolve(NODE_MODULES));
+            Path packageLock = projectDir.resolve(PACKAGE_LOCK);
+            if (Files.isRegularFile(packageLock)) {
+                Files.copy(packageLock, stagingDir.resolve(PACKAGE_LOCK));
+            }
+            Files.move(stagingDir, cacheRoot.resolve(dependencyHash), StandardCopyOption.ATOMIC_MOVE);
+            log.info("依赖已存入缓存: {}", dependencyHash);
+        } finally {
+            FileUtil.del(stagingDir);
+        }
+        evictLeastRecentlyUsed(cacheRoot);
+    }
+
+    private void evictLeastRecentlyUsed(Path cacheRoot) throws IOException {
+        List<Path> dependencySets;
+        try (Stream<Path> stream = Files.list(cacheRoot)) {
+            dependencySets = stream.filter(Files::isDirectory)
+                    .filter(dir -> !dir.getFileName().toString().contains(".tmp-"))
+                    .sorted(Comparator.comparing(NpmDependencyCache::lastModifiedTime).reversed())
+                    .toList();
+        }
+        for (Path dependencySet : dependencySets.stream().skip(vueBuildConfig.getMaxDependencySets()).toList()) {
+            log.info("淘汰依赖缓存: {}", dependencySet.getFileName());
+            FileUtil.del(dependencySet);
+        }
+    }
+
+    private static FileTime lastModifiedTime(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    /**
+     * 以硬链接的方式复制目录树，符号链接（如 .bin 下的命令）按原目标重建，
+     * 不同文件系统之间无法硬链接时改为复制
+     */
+    private static void linkTree(Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Path targetFile = target.resolve(source.relativize(file).toString());
+                if (attrs.isSymbolicLink()) {
+                    Files.createSymbolicLink(targetFile, Files.readSymbolicLink(file));
+                } else if (!file.getFileName().toString().equals(DEPENDENCY_HASH_FILE)) {
+                    try {
+                        Files.createLink(targetFile, file);
+                    } catch (UnsupportedOperationException | FileSystemException e) {
+                        Files.copy(file, targetFile, StandardCopyOption.COPY_ATTRIBUTES);
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void copyLockFileIfAbsent(Path cacheDir, Path projectDir) throws IOException {
+        Path cachedLock = cacheDir.resolve(PACKAGE_LOCK);
+        Path projectLock = projectDir.resolve(PACKAGE_LOCK);
+        if (Files.isRegularFile(cachedLock) && !Files.exists(projectLock)) {
+            Files.copy(cachedLock, projectLock);
+        }
+    }
+
+    private static String readDependencyHash(Path nodeModules) {
+        File hashFile = nodeModules.resolve(DEPENDENCY_HASH_FILE).toFile();
+        return hashFile.isFile() ? FileUtil.readUtf8String(hashFile).trim() : null;
+    }
+
+    private static void writeDependencyHash(Path nodeModules, String dependencyHash) throws IOException {
+        Files.writeString(nodeModules.resolve(DEPENDENCY_HASH_FILE), dependencyHash, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,272 @@
+package com.dong.dongaicodegenerator.core.builder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.Resource;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Vue 项目构建进度跟踪器
+ * 每个项目的一次构建对应一个进度流，依次推送阶段切换、npm 输出和构建结果，
+ * 构建结束后进度流保留一段时间，晚到的订阅者先收到回放的事件再接收实时事件：
+ * 阶段切换和构建结果总是完整回放，npm 输出只回放开头和最近的若干行，中间的行以一行省略提示代替。
+ * 各阶段的耗时记录到 vue_build.phase.duration 指标中
+ */
+@Component
+public class VueBuildProgressTracker {
+
+    public static final String EVENT_PHASE = "phase";
+
+    public static final String EVENT_LOG = "log";
+
+    public static final String EVENT_DONE = "done";
+
+    /**
+     * 每次构建回放的开头输出行数
+     */
+    private static final int MAX_REPLAY_HEAD_LOGS = 100;
+
+    /**
+     * 每次构建回放的最近输出行数
+     */
+    private static final int MAX_REPLAY_TAIL_LOGS = 400;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 构建进度，键为项目目录的绝对路径
+     * 缓存策略：
+     * - 最多保留 1000 个项目的进度
+     * - 写入后 30 分钟过期
+     */
+    private final Cache<String, BuildProgress> progressCache = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .expireAfterWrite(Duration.ofMinutes(30))
+            .build();
+
+    /**
+     * 开始跟踪项目的构建，项目已有未结束的构建时返回该构建的进度
+     *
+     * @param projectPath 项目根目录路径
+     * @return 构建进度
+     */
+    public BuildProgress start(String projectPath) {
+        String key = new File(projectPath).getAbsolutePath();
+        return progressCache.asMap().compute(key,
+                (k, existing) -> existing != null && !existing.finished ? existing : new BuildProgress());
+    }
+
+    /**
+     * 订阅项目最近一次构建的进度
+     *
+     * @param projectPath 项目根目录路径
+     * @return 进度事件流，没有构建记录时为空流
+     */
+    public Flux<BuildProgressEvent> watch(String projectPath) {
+        BuildProgress buildProgress = progressCache.getIfPresent(new File(projectPath).getAbsolutePath());
+        return buildProgress == null ? Flux.empty() : buildProgress.asFlux();
+    }
+
+    /**
+     * 记录阶段耗时
+     *
+     * @param phase         构建阶段
+     * @param durationNanos 耗时（纳秒）
+     * @param success       阶段是否成功
+     */
+    public void recordPhase(BuildPhase phase, long durationNanos, boolean success) {
+        Timer.builder("vue_build.phase.duration")
+                .description("Vue 项目构建各阶段耗时")
+                .tag("phase", phase.getValue())
+                .tag("outcome", success ? "success" : "failure")
+                .register(meterRegistry)
+                .record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 构建阶段
+     */
+    @Getter
+    public enum BuildPhase {
+
+        QUEUED("queued", "排队中"),
+        INSTALL("install", "安装依赖"),
+        BUILD("build", "构建"),
+        COPY("copy", "复制到部署目录");
+
+        private final String value;
+
+        private final String text;
+
+        BuildPhase(String value, String text) {
+            this.value = value;
+            this.text = text;
+        }
+    }
+
+    /**
+     * 构建进度事件
+     */
+    @Data
+    @AllArgsConstructor
+    public static class BuildProgressEvent {
+
+        /**
+         * 事件类型：phase、log、done
+         */
+        private String event;
+
+        /**
+         * 事件内容：阶段名称、一行输出或构建结果
+         */
+        private String data;
+    }
+
+    /**
+     * 一次构建的进度，事件的记录、推送与新订阅者的回放在同一把锁内串行执行，订阅者不会漏收或重复收到事件
+     */
+    public class BuildProgress {
+
+        /**
+         * 回放给晚到订阅者的事件，按推送顺序保存
+         */
+        private final List<BuildProgressEvent> replayEvents = new ArrayList<>();
+
+        private final List<FluxSink<BuildProgressEvent>> subscribers = new ArrayList<>();
+
+        /**
+         * 已推送的输出行数
+         */
+        private int logLines;
+
+        /**
+         * 回放中省略的输出行数
+         */
+        private int omittedLogLines;
+
+        /**
+         * 省略提示在回放事件中的位置，尚未省略时为 -1
+         */
+        private int omittedMarkerIndex = -1;
+
+        private BuildPhase currentPhase;
+
+        private long phaseStartNanos;
+
+        private volatile boolean finished;
+
+        /**
+         * 进入新阶段，同时记录上一阶段的耗时
+         */
+        public synchronized void phase(BuildPhase phase) {
+            if (finished || phase == currentPhase) {
+                return;
+            }
+            endCurrentPhase(true);
+            currentPhase = phase;
+            phaseStartNanos = System.nanoTime();
+            emit(new BuildProgressEvent(EVENT_PHASE, phase.getValue()));
+        }
+
+        /**
+         * 推送一行命令输出
+         */
+        public synchronized void log(String line) {
+            if (finished) {
+                return;
+            }
+            emit(new BuildProgressEvent(EVENT_LOG, line));
+            if (++logLines > MAX_REPLAY_HEAD_LOGS + MAX_REPLAY_TAIL_LOGS) {
+                omitOldestTailLog();
+            }
+        }
+
+        /**
+         * 结束构建，记录最后一个阶段的耗时并推送构建结果
+         */
+        public synchronized void finish(boolean success) {
+            if (finished) {
+                return;
+            }
+            endCurrentPhase(success);
+            finished = true;
+            emit(new BuildProgressEvent(EVENT_DONE, success ? "success" : "failure"));
+            subscribers.forEach(FluxSink::complete);
+            subscribers.clear();
+        }
+
+        /**
+         * 订阅进度：先回放已记录的事件，构建未结束时再接收实时事件
+         */
+        private Flux<BuildProgressEvent> asFlux() {
+            return Flux.create(sink -> {
+                synchronized (this) {
+                    replayEvents.forEach(sink::next);
+                    if (finished) {
+                        sink.complete();
+                        return;
+                    }
+                    subscribers.add(sink);
+                }
+                sink.onDispose(() -> removeSubscriber(sink));
+            });
+        }
+
+        private synchronized void removeSubscriber(FluxSink<BuildProgressEvent> sink) {
+            subscribers.remove(sink);
+        }
+
+        private void emit(BuildProgressEvent event) {
+            replayEvents.add(event);
+            subscribers.forEach(subscriber -> subscriber.next(event));
+        }
+
+        /**
+         * 回放中的输出超过上限时，保留开头的输出，省略其后最早的一行，并更新省略提示
+         */
+        private void omitOldestTailLog() {
+            if (omittedMarkerIndex < 0) {
+                // 第一次省略：开头输出之后的第一行替换为省略提示
+                omittedMarkerIndex = indexOfLog(omittedMarkerIndex + 1, MAX_REPLAY_HEAD_LOGS);
+            } else {
+                replayEvents.remove(indexOfLog(omittedMarkerIndex + 1, 0));
+            }
+            omittedLogLines++;
+            replayEvents.set(omittedMarkerIndex,
+                    new BuildProgressEvent(EVENT_LOG, "...（省略 " + omittedLogLines + " 行输出）..."));
+        }
+
+        /**
+         * 从 fromIndex 开始查找第 skip + 1 个输出事件的位置
+         */
+        private int indexOfLog(int fromIndex, int skip) {
+            for (int i = fromIndex; i < replayEvents.size(); i++) {
+                if (EVENT_LOG.equals(replayEvents.get(i).getEvent()) && skip-- == 0) {
+                    return i;
+                }
+            }
+            throw new IllegalStateException("回放事件中没有可省略的输出");
+        }
+
+        private void endCurrentPhase(boolean success) {
+            if (currentPhase != null) {
+                recordPhase(currentPhase, System.nanoTime() - phaseStartNanos, success);
+                currentPhase = null;
+            }
+        }
+    }
+}
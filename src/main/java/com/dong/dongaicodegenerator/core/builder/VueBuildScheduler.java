@@ -0,0 +1,280 @@
+package com.dong.dongaicodegenerator.core.builder;
+
+import com.dong.dongaicodegenerator.config.VueBuildConfig;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Vue 项目构建调度器
+ * 构建任务进入优先级队列，由固定数量的工作线程执行，同时运行的 npm 进程数不超过 maxConcurrentBuilds。
+ * 同一项目已在排队时，新的请求直接复用该次构建的结果；已在构建中时，本次构建读到的可能是旧的源码，
+ * 新的请求改为在其结束后再构建一次，构建期间的多次请求共用这一次后续构建。部署触发的构建优先于生成后的预构建。
+ * 排队中的任务取消时直接移出队列，构建中的任务通过中断工作线程终止 npm 进程
+ */
+@Slf4j
+@Component
+public class VueBuildScheduler {
+
+    @Resource
+    private VueBuildConfig vueBuildConfig;
+
+    @Resource
+    private VueProjectBuilder vueProjectBuilder;
+
+    @Resource
+    private VueBuildProgressTracker vueBuildProgressTracker;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private final PriorityBlockingQueue<BuildTask> queue = new PriorityBlockingQueue<>();
+
+    /**
+     * 排队或构建中的任务，键为项目目录的绝对路径，构建中任务的后续构建挂在该任务上
+     */
+    private final Map<String, BuildTask> inFlightTasks = new HashMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final AtomicInteger runningCount = new AtomicInteger();
+
+    private final List<Thread> workerThreads = new ArrayList<>();
+
+    private volatile boolean running;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("vue_build.queue.size", queue, PriorityBlockingQueue::size)
+                .description("等待构建的 Vue 项目数")
+                .register(meterRegistry);
+        Gauge.builder("vue_build.running", runningCount, AtomicInteger::get)
+                .description("正在构建的 Vue 项目数")
+                .register(meterRegistry);
+        running = true;
+        for (int i = 0; i < vueBuildConfig.getMaxConcurrentBuilds(); i++) {
+            workerThreads.add(Thread.ofPlatform()
+                    .name("vue-build-worker-" + i)
+                    .daemon(true)
+                    .start(this::workLoop));
+        }
+    }
+
+    /**
+     * 提交构建任务
+     *
+     * @param projectPath 项目根目录路径
+     * @param priority    构建优先级
+     * @return 构建结果，true 表示构建成功
+     */
+    public CompletableFuture<Boolean> submit(String projectPath, BuildPriority priority) {
+        String key = new File(projectPath).getAbsolutePath();
+        synchronized (inFlightTasks) {
+            if (!running) {
+                return CompletableFuture.completedFuture(false);
+            }
+            BuildTask existingTask = inFlightTasks.get(key);
+            if (existingTask != null && queue.contains(existingTask)) {
+                // 排队中的任务按更高的优先级重新排队
+                if (priority.ordinal() < existingTask.priority.ordinal() && queue.remove(existingTask)) {
+                    existingTask.priority = priority;
+                    queue.offer(existingTask);
+                }
+                log.info("项目已在构建队列中，复用本次构建: {}", key);
+                return existingTask.result;
+            }
+            if (existingTask != null) {
+                // 已开始的构建可能读到旧的源码，在其结束后再构建一次
+                BuildTask followUpTask = existingTask.followUpTask;
+                if (followUpTask == null) {
+                    followUpTask = new BuildTask(key, priority, sequence.incrementAndGet());
+                    existingTask.followUpTask = followUpTask;
+                } else if (priority.ordinal() < followUpTask.priority.ordinal()) {
+                    followUpTask.priority = priority;
+                }
+                log.info("项目正在构建，结束后重新构建: {}", key);
+                return followUpTask.result;
+            }
+            BuildTask buildTask = new BuildTask(key, priority, sequence.incrementAndGet());
+            inFlightTasks.put(key, buildTask);
+            vueBuildProgressTracker.start(key).phase(VueBuildProgressTracker.BuildPhase.QUEUED);
+            queue.offer(buildTask);
+            log.info("提交 Vue 项目构建任务，优先级={}，排队数={}: {}", priority, queue.size(), key);
+            return buildTask.result;
+        }
+    }
+
+    /**
+     * 取消项目的构建任务
+     *
+     * @param projectPath 项目根目录路径
+     * @return 是否存在被取消的任务
+     */
+    public boolean cancel(String projectPath) {
+        String key = new File(projectPath).getAbsolutePath();
+        synchronized (inFlightTasks) {
+            BuildTask buildTask = inFlightTasks.remove(key);
+            if (buildTask == null) {
+                return false;
+            }
+            buildTask.cancelled = true;
+            if (buildTask.followUpTask != null) {
+                buildTask.followUpTask.result.complete(false);
+                buildTask.followUpTask = null;
+            }
+            if (queue.remove(buildTask)) {
+                buildTask.result.complete(false);
+                vueBuildProgressTracker.start(key).finish(false);
+                log.info("已取消排队中的构建任务: {}", key);
+            } else if (buildTask.workerThread != null) {
+                // 在锁内中断，保证中断的是仍在执行该任务的工作线程
+                buildTask.workerThread.interrupt();
+                log.info("已中断构建中的任务: {}", key);
+            }
+            return true;
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        running = false;
+        workerThreads.forEach(Thread::interrupt);
+        synchronized (inFlightTasks) {
+            inFlightTasks.values().forEach(buildTask -> {
+                buildTask.result.complete(false);
+                if (buildTask.followUpTask != null) {
+                    buildTask.followUpTask.result.complete(false);
+                }
+            });
+            inFlightTasks.clear();
+            queue.clear();
+        }
+    }
+
+    private void workLoop() {
+        while (running) {
+            BuildTask buildTask;
+            try {
+                buildTask = queue.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            boolean success = false;
+            try {
+                synchronized (inFlightTasks) {
+                    if (buildTask.cancelled) {
+                        continue;
+                    }
+                    buildTask.workerThread = Thread.currentThread();
+                }
+                runningCount.incrementAndGet();
+                try {
+                    success = vueProjectBuilder.buildProject(buildTask.projectPath);
+                } finally {
+                    runningCount.decrementAndGet();
+                }
+            } catch (Exception e) {
+                log.error("构建 Vue 项目失败: {}", buildTask.projectPath, e);
+            } finally {
+                synchronized (inFlightTasks) {
+                    buildTask.workerThread = null;
+                    if (inFlightTasks.remove(buildTask.projectPath, buildTask)) {
+                        enqueueFollowUp(buildTask);
+                    }
+                }
+                // 清除取消时设置的中断标记，工作线程继续处理下一个任务
+                if (Thread.interrupted() && !running) {
+                    Thread.currentThread().interrupt();
+                }
+                buildTask.result.complete(success && !buildTask.cancelled);
+            }
+        }
+    }
+
+    /**
+     * 构建结束后将其后续构建放入队列，调用方需持有 inFlightTasks 的锁
+     */
+    private void enqueueFollowUp(BuildTask buildTask) {
+        BuildTask followUpTask = buildTask.followUpTask;
+        buildTask.followUpTask = null;
+        if (followUpTask == null) {
+            return;
+        }
+        if (!running) {
+            followUpTask.result.complete(false);
+            return;
+        }
+        inFlightTasks.put(followUpTask.projectPath, followUpTask);
+        vueBuildProgressTracker.start(followUpTask.projectPath).phase(VueBuildProgressTracker.BuildPhase.QUEUED);
+        queue.offer(followUpTask);
+        log.info("提交 Vue 项目后续构建任务，优先级={}，排队数={}: {}", followUpTask.priority, queue.size(),
+                followUpTask.projectPath);
+    }
+
+    /**
+     * 构建优先级，越靠前越优先
+     */
+    @Getter
+    public enum BuildPriority {
+
+        DEPLOY("部署"),
+        GENERATION("生成后预构建");
+
+        private final String text;
+
+        BuildPriority(String text) {
+            this.text = text;
+        }
+    }
+
+    /**
+     * 构建任务，按优先级和提交顺序排序
+     */
+    private static final class BuildTask implements Comparable<BuildTask> {
+
+        private final String projectPath;
+
+        private final long sequence;
+
+        private final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        private volatile BuildPriority priority;
+
+        private volatile boolean cancelled;
+
+        private volatile Thread workerThread;
+
+        /**
+         * 构建期间提交的后续构建，本次构建结束后入队
+         */
+        private BuildTask followUpTask;
+
+        private BuildTask(String projectPath, BuildPriority priority, long sequence) {
+            this.projectPath = projectPath;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(BuildTask other) {
+            int priorityCompare = Integer.compare(priority.ordinal(), other.priority.ordinal());
+            return priorityCompare != 0 ? priorityCompare : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -1,59 +1,96 @@
 package com.dong.dongaicodegenerator.core.builder;
 
 
-import cn.hutool.core.util.RuntimeUtil;
+import cn.hutool.core.io.FileUtil;
+import com.dong.dongaicodegenerator.config.VueBuildConfig;
+import com.dong.dongaicodegenerator.utils.DirectoryHashUtils;
+import com.dong.dongaicodegenerator.utils.PathIgnoreMatcher;
+import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.io.BufferedReader;
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 @Slf4j
 @Component
 public class VueProjectBuilder {
 
     /**
-     * 异步构建 Vue 项目
-     *
-     * @param projectPath 项目根目录路径
+     * 记录上次成功构建时源码指纹的文件，位于项目根目录，与 dist 目录一起表示构建结果
      */
-    public void buildProjectAsync(String projectPath) {
-        Thread.ofVirtual().name("vue-project-" + System.currentTimeMillis())
-                .start(new Runnable() {
-                    @Override
-                    public void run() {
-                        try {
-                            buildProject(projectPath);
-                        } catch (Exception e) {
-                            log.info("构建 Vue 项目失败，错误信息: {}", e.getMessage());
-                        }
-                    }
-                });
-    }
+    public static final String BUILD_FINGERPRINT_FILE = ".build-fingerprint";
+
+    /**
+     * 进程退出后等待剩余输出读完的最长时间（秒）
+     */
+    private static final int OUTPUT_DRAIN_SECONDS = 5;
+
+    /**
+     * 计算源码指纹时只排除依赖和构建结果；.env 等构建时读取的文件虽不参与打包下载，但必须计入指纹
+     */
+    private static final PathIgnoreMatcher SOURCE_FINGERPRINT_IGNORE_MATCHER = PathIgnoreMatcher.compile(List.of(
+            "node_modules",
+            "/dist",
+            "/" + BUILD_FINGERPRINT_FILE
+    ));
+
+    @Resource
+    private VueBuildConfig vueBuildConfig;
+
+    @Resource
+    private NpmDependencyCache npmDependencyCache;
+
+    @Resource
+    private VueBuildProgressTracker vueBuildProgressTracker;
 
     /**
      * 执行命令
+     * 标准错误合并到标准输出，由单独的虚拟线程逐行读取并交给 outputConsumer，
+     * 既能实时推送构建日志，也避免输出填满管道缓冲区导致 npm 阻塞
      *
      * @param workingDir     工作目录
-     * @param command        命令字符串
      * @param timeoutSeconds 超时时间（秒）
+     * @param outputConsumer 命令输出的接收方，每次接收一行
+     * @param commandParts   命令及参数，参数中可以包含空格（如缓存目录路径）
      * @return 是否执行成功
      */
-    private boolean executeCommand(File workingDir, String command, int timeoutSeconds) {
+    private boolean executeCommand(File workingDir, int timeoutSeconds, Consumer<String> outputConsumer,
+                                   String... commandParts) {
+        String command = String.join(" ", commandParts);
         try {
             log.info("在目录 {} 中执行命令: {}", workingDir.getAbsolutePath(), command);
-            Process process = RuntimeUtil.exec(
-                    null,
-                    workingDir,
-                    command.split("\\s+") // 命令分割为数组
-            );
+            Process process = new ProcessBuilder(commandParts)
+                    .directory(workingDir)
+                    .redirectErrorStream(true)
+                    .start();
+            Thread outputReader = Thread.ofVirtual()
+                    .name("npm-output-reader")
+                    .start(() -> readOutput(process, outputConsumer));
             // 等待进程完成，设置超时
-            boolean finished = process.waitFor(timeoutSeconds, TimeUnit.SECONDS);
+            boolean finished;
+            try {
+                finished = process.waitFor(timeoutSeconds, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                // 构建任务被取消，终止 npm 进程
+                log.warn("命令被中断，强制终止进程: {}", command);
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+                return false;
+            }
             if (!finished) {
                 log.error("命令执行超时（{}秒），强制终止进程", timeoutSeconds);
                 process.destroyForcibly();
                 return false;
             }
+            // 进程退出后等待剩余输出读完，npm 派生的子进程仍持有管道时不无限等待
+            outputReader.join(Duration.ofSeconds(OUTPUT_DRAIN_SECONDS));
             int exitCode = process.exitValue();
             if (exitCode == 0) {
                 log.info("命令执行成功: {}", command);
@@ -62,28 +99,55 @@ public class VueProjectBuilder {
                 log.error("命令执行失败，退出码: {}", exitCode);
                 return false;
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
         } catch (Exception e) {
             log.error("执行命令失败: {}, 错误信息: {}", command, e.getMessage());
             return false;
         }
     }
 
+    private void readOutput(Process process, Consumer<String> outputConsumer) {
+        try (BufferedReader reader = process.inputReader(Charset.defaultCharset())) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                outputConsumer.accept(line);
+            }
+        } catch (IOException e) {
+            // 进程被强制终止时管道关闭，忽略
+            log.debug("读取命令输出结束: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 安装依赖，开启依赖缓存时优先复用相同依赖已安装好的 node_modules
+     */
+    private boolean installDependencies(File projectDir, VueBuildProgressTracker.BuildProgress buildProgress) {
+        if (!vueBuildConfig.isDependencyCacheEnabled()) {
+            return executeNpmInstall(projectDir, buildProgress);
+        }
+        return npmDependencyCache.installDependencies(projectDir, dir -> executeNpmInstall(dir, buildProgress));
+    }
+
     /**
      * 执行 npm install 命令
+     * 使用本地 npm 缓存目录并优先读取缓存，缓存中已有的包不再访问网络
      */
-    private boolean executeNpmInstall(File projectDir) {
+    private boolean executeNpmInstall(File projectDir, VueBuildProgressTracker.BuildProgress buildProgress) {
         log.info("执行 npm install...");
-        String command = String.format("%s install", buildCommand("npm"));
-        return executeCommand(projectDir, command, 300); // 5分钟超时
+        return executeCommand(projectDir, vueBuildConfig.getInstallTimeoutSeconds(), buildProgress::log,
+                buildCommand("npm"), "install", "--prefer-offline", "--no-audit", "--no-fund",
+                "--cache", vueBuildConfig.getNpmCacheDir());
     }
 
     /**
      * 执行 npm run build 命令
      */
-    private boolean executeNpmBuild(File projectDir) {
+    private boolean executeNpmBuild(File projectDir, VueBuildProgressTracker.BuildProgress buildProgress) {
         log.info("执行 npm run build...");
-        String command = String.format("%s run build", buildCommand("npm"));
-        return executeCommand(projectDir, command, 180); // 3分钟超时
+        return executeCommand(projectDir, vueBuildConfig.getBuildTimeoutSeconds(), buildProgress::log,
+                buildCommand("npm"), "run", "build");
     }
 
 
@@ -106,13 +170,42 @@ public class VueProjectBuilder {
     }
 
 
+    /**
+     * 计算源码指纹：排除 node_modules、dist 和指纹文件后，对其余文件计算目录哈希
+     */
+    private String computeSourceFingerprint(File projectDir) {
+        return DirectoryHashUtils.sha256Hex(projectDir, SOURCE_FINGERPRINT_IGNORE_MATCHER.asFileFilter(projectDir.toPath()));
+    }
+
+    /**
+     * 判断 dist 目录是否由当前源码构建而来
+     */
+    private boolean isBuildUpToDate(File projectDir, String sourceFingerprint) {
+        File fingerprintFile = new File(projectDir, BUILD_FINGERPRINT_FILE);
+        File distDir = new File(projectDir, "dist");
+        return fingerprintFile.isFile() && distDir.isDirectory()
+                && sourceFingerprint.equals(FileUtil.readUtf8String(fingerprintFile).trim());
+    }
+
     /**
      * 构建 Vue 项目
+     * 源码指纹与上次成功构建时一致且 dist 目录存在时直接复用，不再执行 npm 命令
      *
      * @param projectPath 项目根目录路径
      * @return 是否构建成功
      */
     public boolean buildProject(String projectPath) {
+        VueBuildProgressTracker.BuildProgress buildProgress = vueBuildProgressTracker.start(projectPath);
+        boolean success = false;
+        try {
+            success = doBuildProject(projectPath, buildProgress);
+            return success;
+        } finally {
+            buildProgress.finish(success);
+        }
+    }
+
+    private boolean doBuildProject(String projectPath, VueBuildProgressTracker.BuildProgress buildProgress) {
         File projectDir = new File(projectPath);
         if (!projectDir.exists() || !projectDir.isDirectory()) {
             log.error("项目目录不存在: {}", projectPath);
@@ -124,14 +217,26 @@ public class VueProjectBuilder {
             log.error("package.json 文件不存在: {}", packageJson.getAbsolutePath());
             return false;
         }
+        if (isBuildUpToDate(projectDir, computeSourceFingerprint(projectDir))) {
+            log.info("源码自上次构建后未变化，跳过构建: {}", projectPath);
+            buildProgress.log("源码自上次构建后未变化，跳过构建");
+            return true;
+        }
+        // 先删除旧指纹，构建中途失败时不会误用残留的 dist 目录
+        File fingerprintFile = new File(projectDir, BUILD_FINGERPRINT_FILE);
+        FileUtil.del(fingerprintFile);
         log.info("开始构建 Vue 项目: {}", projectPath);
-        // 执行 npm install
-        if (!executeNpmInstall(projectDir)) {
+        // 安装依赖
+        buildProgress.phase(VueBuildProgressTracker.BuildPhase.INSTALL);
+        if (!installDependencies(projectDir, buildProgress)) {
             log.error("npm install 执行失败");
             return false;
         }
+        // 安装后再计算指纹，npm 首次安装生成的 package-lock.json 也计入其中
+        String sourceFingerprint = computeSourceFingerprint(projectDir);
         // 执行 npm run build
-        if (!executeNpmBuild(projectDir)) {
+        buildProgress.phase(VueBuildProgressTracker.BuildPhase.BUILD);
+        if (!executeNpmBuild(projectDir, buildProgress)) {
             log.error("npm run build 执行失败");
             return false;
         }
@@ -141,6 +246,7 @@ public class VueProjectBuilder {
             log.error("构建完成但 dist 目录未生成: {}", distDir.getAbsolutePath());
             return false;
         }
+        FileUtil.writeUtf8String(sourceFingerprint, fingerprintFile);
         log.info("Vue 项目构建成功，dist 目录: {}", distDir.getAbsolutePath());
         return true;
     }
@@ -0,0 +1,317 @@
+package com.dong.dongaicodegenerator.core.deploy;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.RandomUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import com.dong.dongaicodegenerator.constant.AppConstant;
+import com.dong.dongaicodegenerator.exception.BusinessException;
+import com.dong.dongaicodegenerator.exception.ErrorCode;
+import com.dong.dongaicodegenerator.utils.GzipUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * 增量部署器
+ * 每次部署生成一个新的版本目录：与当前版本相比未变化的文件（大小与修改时间一致，或内容哈希一致）
+ * 以硬链接复用，变化的文件才复制，已删除的文件自然不会出现在新版本中。
+ * 版本准备完成后通过符号链接的原子重命名切换，访问方不会读到写了一半的页面。
+ * 文本类资源同时生成 .gz 预压缩文件。
+ * 文件系统不支持符号链接时退化为在部署目录内原地增量同步
+ */
+@Slf4j
+@Component
+public class IncrementalDeployer {
+
+    /**
+     * 保留的版本数（包括当前版本），旧版本留给切换前已开始的请求继续读取
+     */
+    private static final int RETAINED_RELEASES = 2;
+
+    /**
+     * 部署锁的分段数
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * 按 deployKey 分段的部署锁，同一个 deployKey 的部署串行执行，锁的数量固定，不随应用数增长
+     */
+    private final ReentrantLock[] deployLocks = Stream.generate(ReentrantLock::new)
+            .limit(LOCK_STRIPES)
+            .toArray(ReentrantLock[]::new);
+
+    /**
+     * 将源目录部署到 {@link AppConstant#CODE_DEPLOY_ROOT_DIR}/{deployKey}
+     *
+     * @param sourceDir 源目录
+     * @param deployKey 部署标识
+     * @return 部署目录
+     */
+    public File deploy(File sourceDir, String deployKey) {
+        return deploy(sourceDir.toPath(), Paths.get(AppConstant.CODE_DEPLOY_ROOT_DIR),
+                Paths.get(AppConstant.CODE_DEPLOY_RELEASE_ROOT_DIR), deployKey);
+    }
+
+    File deploy(Path sourceDir, Path deployRoot, Path releaseRoot, String deployKey) {
+        ReentrantLock lock = deployLocks[Math.floorMod(deployKey.hashCode(), LOCK_STRIPES)];
+        lock.lock();
+        try {
+            Files.createDirectories(deployRoot);
+            Path deployPath = deployRoot.resolve(deployKey);
+            Path appReleaseRoot = releaseRoot.resolve(deployKey);
+            // 当前版本：符号链接指向的版本目录，或旧方式部署的普通目录
+            Path currentRelease = Files.exists(deployPath) ? deployPath.toRealPath() : null;
+            Path stagedRelease = appReleaseRoot.resolve(System.currentTimeMillis() + "_" + RandomUtil.randomString(6));
+            SyncResult syncResult = new SyncResult();
+            boolean swapped;
+            try {
+                stage(sourceDir, currentRelease, stagedRelease, syncResult);
+                swapped = swap(deployPath, stagedRelease, appReleaseRoot);
+            } catch (IOException | RuntimeException e) {
+                // 未切换的新版本目录名称最新，留下会被后续部署当作上一版本保留，而真正的上一版本被清理
+                FileUtil.del(stagedRelease);
+                throw e;
+            }
+            if (!swapped) {
+                FileUtil.del(stagedRelease);
+                syncResult = new SyncResult();
+                syncInPlace(sourceDir, deployPath, syncResult);
+                log.info("应用增量部署完成（原地同步），deployKey={}，{}", deployKey, syncResult);
+                return deployPath.toFile();
+            }
+            cleanOldReleases(appReleaseRoot, stagedRelease);
+            log.info("应用增量部署完成，deployKey={}，版本={}，{}", deployKey, stagedRelease.getFileName(), syncResult);
+            return deployPath.toFile();
+        } catch (IOException e) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "应用部署失败，发生异常：" + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 在新版本目录中准备全部文件
+     */
+    private void stage(Path sourceDir, Path currentRelease, Path stagedRelease, SyncResult syncResult) throws IOException {
+        Files.walkFileTree(sourceDir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(stagedRelease.resolve(sourceDir.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                String relativePath = sourceDir.relativize(file).toString();
+                Path target = stagedRelease.resolve(relativePath);
+                if (currentRelease != null) {
+                    Path previous = currentRelease.resolve(relativePath);
+                    if (isUnchanged(file, attrs, previous) && tryLink(target, previous)) {
+                        syncResult.unchanged++;
+                        precompress(file, target, previous, attrs.size());
+                        return FileVisitResult.CONTINUE;
+                    }
+                }
+                Files.copy(file, target, StandardCopyOption.COPY_ATTRIBUTES);
+                syncResult.copied++;
+                precompress(file, target, null, attrs.size());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * 通过符号链接的原子重命名切换到新版本
+     *
+     * @return 文件系统不支持符号链接时返回 false
+     */
+    private boolean swap(Path deployPath, Path stagedRelease, Path appReleaseRoot) throws IOException {
+        Path tempLink = deployPath.resolveSibling("." + deployPath.getFileName() + "." + RandomUtil.randomString(6) + ".link");
+        try {
+            Files.createSymbolicLink(tempLink, stagedRelease.toAbsolutePath());
+        } catch (UnsupportedOperationException | IOException e) {
+            log.warn("无法创建符号链接，改为原地增量同步：{}", e.getMessage());
+            return false;
+        }
+        try {
+            if (!Files.isDirectory(deployPath, LinkOption.NOFOLLOW_LINKS)) {
+                Files.move(tempLink, deployPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                return true;
+            }
+            // 旧方式部署的普通目录无法被符号链接原子覆盖，只能先移走再紧接着换入链接，两次重命名之间没有其他操作；
+            // 移入版本目录时以 0_ 开头保证排在所有版本之前，名称唯一避免与之前转换留下的目录冲突
+            Path legacyRelease = appReleaseRoot.resolve("0_legacy_" + System.currentTimeMillis() + "_" + RandomUtil.randomString(6));
+            Files.move(deployPath, legacyRelease, StandardCopyOption.ATOMIC_MOVE);
+            try {
+                Files.move(tempLink, deployPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                // 换入失败时移回原目录，继续以旧版本提供访问
+                Files.move(legacyRelease, deployPath, StandardCopyOption.ATOMIC_MOVE);
+                throw e;
+            }
+            return true;
+        } finally {
+            Files.deleteIfExists(tempLink);
+        }
+    }
+
+    /**
+     * 在部署目录内原地同步：逐个文件先写临时文件再原子替换，最后删除源目录中已不存在的文件
+     */
+    private void syncInPlace(Path sourceDir, Path deployPath, SyncResult syncResult) throws IOException {
+        Set<String> sourcePaths = new HashSet<>();
+        Files.walkFileTree(sourceDir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                String relativePath = sourceDir.relativize(dir).toString();
+                sourcePaths.add(relativePath);
+                Files.createDirectories(deployPath.resolve(relativePath));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                String relativePath = sourceDir.relativize(file).toString();
+                sourcePaths.add(relativePath);
+                Path target = deployPath.resolve(relativePath);
+                if (shouldPrecompress(file, attrs.size())) {
+                    sourcePaths.add(relativePath + GzipUtils.GZIP_SUFFIX);
+                }
+                if (isUnchanged(file, attrs, target)) {
+                    syncResult.unchanged++;
+                    Path gzipTarget = gzipPathOf(target);
+                    if (shouldPrecompress(file, attrs.size()) && (!Files.exists(gzipTarget)
+                            || Files.getLastModifiedTime(gzipTarget).compareTo(Files.getLastModifiedTime(target)) < 0)) {
+                        GzipUtils.gzip(target, gzipTarget);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+                Path tempFile = target.resolveSibling("." + target.getFileName() + "." + RandomUtil.randomString(6) + ".part");
+                Files.copy(file, tempFile, StandardCopyOption.COPY_ATTRIBUTES);
+                try {
+                    Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+                syncResult.copied++;
+                precompress(file, target, null, attrs.size());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        // 从深到浅删除，保证目录删除前其中的文件已删除
+        List<Path> deployedPaths;
+        try (Stream<Path> stream = Files.walk(deployPath)) {
+            deployedPaths = stream.sorted((a, b) -> b.getNameCount() - a.getNameCount()).toList();
+        }
+        for (Path deployedPath : deployedPaths) {
+            if (!sourcePaths.contains(deployPath.relativize(deployedPath).toString())) {
+                FileUtil.del(deployedPath);
+                syncResult.deleted++;
+            }
+        }
+    }
+
+    /**
+     * 为文本类资源生成同名的 .gz 预压缩文件，Web 服务器（如 Nginx 的 gzip_static）和预览接口可直接发送；
+     * 文件未变化时以硬链接复用上一版本的压缩文件
+     *
+     * @param sourceFile 源文件
+     * @param target     部署的文件
+     * @param previous   上一版本中未变化的同一文件，没有时为 null
+     * @param size       文件大小
+     */
+    private void precompress(Path sourceFile, Path target, Path previous, long size) throws IOException {
+        if (!shouldPrecompress(sourceFile, size)) {
+            return;
+        }
+        Path gzipTarget = gzipPathOf(target);
+        if (previous != null && Files.isRegularFile(gzipPathOf(previous)) && tryLink(gzipTarget, gzipPathOf(previous))) {
+            return;
+        }
+        GzipUtils.gzip(target, gzipTarget);
+    }
+
+    /**
+     * 源目录中已有同名 .gz 文件时不生成，避免覆盖
+     */
+    private boolean shouldPrecompress(Path sourceFile, long size) {
+        return GzipUtils.shouldCompress(sourceFile.getFileName().toString(), size)
+                && !Files.exists(gzipPathOf(sourceFile));
+    }
+
+    private static Path gzipPathOf(Path path) {
+        return path.resolveSibling(path.getFileName() + GzipUtils.GZIP_SUFFIX);
+    }
+
+    /**
+     * 删除多余的旧版本，始终保留刚切换的版本
+     * 版本目录以创建时间开头，按名称倒序即为从新到旧
+     */
+    private void cleanOldReleases(Path appReleaseRoot, Path stagedRelease) throws IOException {
+        List<Path> oldReleases;
+        try (Stream<Path> stream = Files.list(appReleaseRoot)) {
+            oldReleases = stream.filter(release -> !release.equals(stagedRelease))
+                    .sorted((a, b) -> b.getFileName().toString().compareTo(a.getFileName().toString()))
+                    .skip(RETAINED_RELEASES - 1)
+                    .toList();
+        }
+        for (Path oldRelease : oldReleases) {
+            FileUtil.del(oldRelease);
+        }
+    }
+
+    /**
+     * 判断文件是否未变化：大小与修改时间一致视为未变化，大小一致但时间不同时比较内容哈希
+     */
+    private boolean isUnchanged(Path file, BasicFileAttributes attrs, Path previous) throws IOException {
+        BasicFileAttributes previousAttrs;
+        try {
+            previousAttrs = Files.readAttributes(previous, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        if (!previousAttrs.isRegularFile() || previousAttrs.size() != attrs.size()) {
+            return false;
+        }
+        if (previousAttrs.lastModifiedTime().equals(attrs.lastModifiedTime())) {
+            return true;
+        }
+        return Arrays.equals(DigestUtil.sha256(file.toFile()), DigestUtil.sha256(previous.toFile()));
+    }
+
+    private boolean tryLink(Path target, Path previous) {
+        try {
+            Files.createLink(target, previous);
+            return true;
+        } catch (UnsupportedOperationException | IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 同步统计
+     */
+    private static final class SyncResult {
+
+        private int copied;
+
+        private int unchanged;
+
+        private int deleted;
+
+        @Override
+        public String toString() {
+            return String.format("复制 %d 个文件，复用 %d 个文件，删除 %d 个文件", copied, unchanged, deleted);
+        }
+    }
+}
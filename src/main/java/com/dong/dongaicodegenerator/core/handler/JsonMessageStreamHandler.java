@@ -6,7 +6,7 @@ import cn.hutool.json.JSONObject;
 import cn.hutool.json.JSONUtil;
 import com.dong.dongaicodegenerator.ai.model.message.*;
 import com.dong.dongaicodegenerator.constant.AppConstant;
-import com.dong.dongaicodegenerator.core.builder.VueProjectBuilder;
+import com.dong.dongaicodegenerator.core.builder.VueBuildScheduler;
 import com.dong.dongaicodegenerator.model.entity.User;
 import com.dong.dongaicodegenerator.model.enums.ChatHistoryMessageTypeEnum;
 import com.dong.dongaicodegenerator.service.ChatHistoryService;
@@ -27,11 +27,11 @@ import java.util.Set;
 public class JsonMessageStreamHandler {
 
     @Resource
-    private VueProjectBuilder vueProjectBuilder;
+    private VueBuildScheduler vueBuildScheduler;
 
     /**
      * 处理 TokenStream（VUE_PROJECT）
-     * 解析 JSON 消息并重组为完整的响应格式
+     * 按消息类型重组为完整的响应格式
      *
      * @param originFlux         原始流
      * @param chatHistoryService 聊天历史服务
@@ -39,7 +39,7 @@ public class JsonMessageStreamHandler {
      * @param loginUser          登录用户
      * @return 处理后的流
      */
-    public Flux<String> handle(Flux<String> originFlux,
+    public Flux<String> handle(Flux<StreamMessage> originFlux,
                                ChatHistoryService chatHistoryService,
                                long appId, User loginUser) {
         // 收集数据用于生成后端记忆格式
@@ -47,56 +47,45 @@ public class JsonMessageStreamHandler {
         // 用于跟踪已经见过的工具ID，判断是否是第一次调用
         Set<String> seenToolIds = new HashSet<>();
         return originFlux
-                .map(chunk -> {
-                    // 解析每个 JSON 消息块
-                    return handleJsonMessageChunk(chunk, chatHistoryStringBuilder, seenToolIds);
-                })
+                .map(streamMessage -> handleStreamMessage(streamMessage, chatHistoryStringBuilder, seenToolIds))
                 .filter(StrUtil::isNotEmpty) // 过滤空字串
                 .doOnComplete(() -> {
                     // 流式响应完成后，添加 AI 消息到对话历史
                     String aiResponse = chatHistoryStringBuilder.toString();
-                    chatHistoryService.addChatHistory(appId, aiResponse, ChatHistoryMessageTypeEnum.AI.getValue(), loginUser.getId());
+                    chatHistoryService.addChatHistoryAsync(appId, aiResponse, ChatHistoryMessageTypeEnum.AI.getValue(), loginUser.getId());
                     String projectPath = AppConstant.CODE_OUTPUT_ROOT_DIR + "/vue_project_" + appId;
-                    // 异步构建 Vue 项目
-                    vueProjectBuilder.buildProjectAsync(projectPath);
+                    // 提交预构建任务，部署时可直接复用构建结果
+                    vueBuildScheduler.submit(projectPath, VueBuildScheduler.BuildPriority.GENERATION);
                 })
                 .doOnError(error -> {
                     // 如果AI回复失败，也要记录错误消息
                     String errorMessage = "AI回复失败: " + error.getMessage();
-                    chatHistoryService.addChatHistory(appId, errorMessage, ChatHistoryMessageTypeEnum.AI.getValue(), loginUser.getId());
+                    chatHistoryService.addChatHistoryAsync(appId, errorMessage, ChatHistoryMessageTypeEnum.AI.getValue(), loginUser.getId());
                 });
     }
 
     /**
-     * 解析并收集 TokenStream 数据
+     * 收集 TokenStream 数据，按消息类型转换为前端展示内容
      */
-    private String handleJsonMessageChunk(String chunk, StringBuilder chatHistoryStringBuilder, Set<String> seenToolIds) {
-        // 解析 JSON
-        StreamMessage streamMessage = JSONUtil.toBean(chunk, StreamMessage.class);
-        StreamMessageTypeEnum typeEnum = StreamMessageTypeEnum.getEnumByValue(streamMessage.getType());
-        switch (typeEnum) {
-            case AI_RESPONSE -> {
-                AiResponseMessage aiMessage = JSONUtil.toBean(chunk, AiResponseMessage.class);
-                String data = aiMessage.getData();
+    String handleStreamMessage(StreamMessage streamMessage, StringBuilder chatHistoryStringBuilder, Set<String> seenToolIds) {
+        return switch (streamMessage) {
+            case AiResponseMessage aiResponseMessage -> {
+                String data = aiResponseMessage.getData();
                 // 直接拼接响应
                 chatHistoryStringBuilder.append(data);
-                return data;
+                yield data;
             }
-            case TOOL_REQUEST -> {
-                ToolRequestMessage toolRequestMessage = JSONUtil.toBean(chunk, ToolRequestMessage.class);
+            case ToolRequestMessage toolRequestMessage -> {
                 String toolId = toolRequestMessage.getId();
                 // 检查是否是第一次看到这个工具 ID
-                if (toolId != null && !seenToolIds.contains(toolId)) {
-                    // 第一次调用这个工具，记录 ID 并完整返回工具信息
-                    seenToolIds.add(toolId);
-                    return "\n\n[选择工具] 写入文件\n\n";
-                } else {
-                    // 不是第一次调用这个工具，直接返回空
-                    return "";
+                if (toolId != null && seenToolIds.add(toolId)) {
+                    // 第一次调用这个工具，完整返回工具信息
+                    yield "\n\n[选择工具] 写入文件\n\n";
                 }
+                // 不是第一次调用这个工具，直接返回空
+                yield "";
             }
-            case TOOL_EXECUTED -> {
-                ToolExecutedMessage toolExecutedMessage = JSONUtil.toBean(chunk, ToolExecutedMessage.class);
+            case ToolExecutedMessage toolExecutedMessage -> {
                 JSONObject jsonObject = JSONUtil.parseObj(toolExecutedMessage.getArguments());
                 String relativeFilePath = jsonObject.getStr("relativeFilePath");
                 String suffix = FileUtil.getSuffix(relativeFilePath);
@@ -110,12 +99,8 @@ public class JsonMessageStreamHandler {
                 // 输出前端和要持久化的内容
                 String output = String.format("\n\n%s\n\n", result);
                 chatHistoryStringBuilder.append(output);
-                return output;
-            }
-            default -> {
-                log.error("不支持的消息类型: {}", typeEnum);
-                return "";
+                yield output;
             }
-        }
+        };
     }
 }
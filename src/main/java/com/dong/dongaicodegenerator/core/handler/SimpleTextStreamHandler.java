@@ -1,5 +1,7 @@
 package com.dong.dongaicodegenerator.core.handler;
 
+import com.dong.dongaicodegenerator.ai.model.message.AiResponseMessage;
+import com.dong.dongaicodegenerator.ai.model.message.StreamMessage;
 import com.dong.dongaicodegenerator.model.entity.User;
 import com.dong.dongaicodegenerator.model.enums.ChatHistoryMessageTypeEnum;
 import com.dong.dongaicodegenerator.service.ChatHistoryService;
@@ -12,13 +14,15 @@ import java.util.function.Function;
 @Slf4j
 public class SimpleTextStreamHandler {
 
-    public Flux<String> simpleTextStreamHandler(Flux<String> originFlux
+    public Flux<String> simpleTextStreamHandler(Flux<StreamMessage> originFlux
             , ChatHistoryService chatHistoryService
             , Long appId, User loginUser) {
         StringBuilder aiResponseBuilder = new StringBuilder();
-        return originFlux.map(new Function<String, String>() {
+        return originFlux.map(new Function<StreamMessage, String>() {
             @Override
-            public String apply(String s) {
+            public String apply(StreamMessage streamMessage) {
+                // HTML、MULTI_FILE 模式只会产生 AI 响应消息
+                String s = streamMessage instanceof AiResponseMessage aiResponseMessage ? aiResponseMessage.getData() : "";
                 aiResponseBuilder.append(s);
                 return s;
             }
@@ -26,14 +30,14 @@ public class SimpleTextStreamHandler {
             @Override
             public void run() {
                 String aiResponseString = aiResponseBuilder.toString();
-                chatHistoryService.addChatHistory(appId, aiResponseString
+                chatHistoryService.addChatHistoryAsync(appId, aiResponseString
                         , ChatHistoryMessageTypeEnum.AI.getValue(), loginUser.getId());
             }
         }).doOnError(new Consumer<Throwable>() {
             @Override
             public void accept(Throwable throwable) {
                 String errorMessage = "AI 回复生成失败，错误信息：" + throwable.getMessage();
-                chatHistoryService.addChatHistory(appId, errorMessage
+                chatHistoryService.addChatHistoryAsync(appId, errorMessage
                         , ChatHistoryMessageTypeEnum.AI.getValue(), loginUser.getId());
             }
         });
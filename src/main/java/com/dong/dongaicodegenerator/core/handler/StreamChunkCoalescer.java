@@ -0,0 +1,166 @@
+package com.dong.dongaicodegenerator.core.handler;
+
+import org.reactivestreams.Subscription;
+import reactor.core.Disposable;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 流式片段合并器
+ * 将细碎的模型输出片段按时间或长度合并后再下发：缓冲区中最早的片段停留满 maxDelayMs，
+ * 或缓冲区长度达到 maxChars 时推送，以先到者为准。上游完成或出错前会先推送剩余内容。
+ * 按下游的请求量推送：下游没有请求时不推送，缓冲区写满后也不再向上游请求，客户端读取慢时不会无限堆积
+ */
+public class StreamChunkCoalescer {
+
+    private StreamChunkCoalescer() {
+    }
+
+    /**
+     * 合并流式片段
+     *
+     * @param originFlux 原始片段流
+     * @param maxDelayMs 片段最长停留时间（毫秒），小于等于 0 时不按时间合并
+     * @param maxChars   缓冲区最大字符数
+     * @return 合并后的片段流
+     */
+    public static Flux<String> coalesce(Flux<String> originFlux, long maxDelayMs, int maxChars) {
+        if (maxDelayMs <= 0 || maxChars <= 1) {
+            return originFlux;
+        }
+        return Flux.create(sink -> {
+            CoalescingSubscriber subscriber = new CoalescingSubscriber(sink, maxDelayMs, maxChars);
+            originFlux.subscribe(subscriber);
+            sink.onRequest(n -> subscriber.drain());
+            // 客户端断开时取消上游，触发上游的取消回调
+            sink.onDispose(subscriber::dispose);
+        });
+    }
+
+    /**
+     * 合并订阅者，每次只向上游请求一个片段，下游有请求时才推送缓冲区。
+     * 上游线程、定时刷新线程与下游请求线程都会访问，方法均加锁以保证输出顺序
+     */
+    private static final class CoalescingSubscriber extends BaseSubscriber<String> {
+
+        private final FluxSink<String> sink;
+
+        private final long maxDelayMs;
+
+        private final int maxChars;
+
+        private final StringBuilder builder;
+
+        /**
+         * 缓冲区非空时挂起的定时刷新任务
+         */
+        private Disposable scheduledFlush;
+
+        /**
+         * 缓冲区已停留满 maxDelayMs，等待下游请求后推送
+         */
+        private boolean flushDue;
+
+        /**
+         * 已向上游请求、尚未收到的片段
+         */
+        private boolean upstreamRequested;
+
+        /**
+         * 上游已结束，推送完剩余内容后结束下游
+         */
+        private boolean upstreamDone;
+
+        private Throwable upstreamError;
+
+        private CoalescingSubscriber(FluxSink<String> sink, long maxDelayMs, int maxChars) {
+            this.sink = sink;
+            this.maxDelayMs = maxDelayMs;
+            this.maxChars = maxChars;
+            this.builder = new StringBuilder(maxChars);
+        }
+
+        @Override
+        protected void hookOnSubscribe(Subscription subscription) {
+            drain();
+        }
+
+        @Override
+        protected synchronized void hookOnNext(String chunk) {
+            upstreamRequested = false;
+            builder.append(chunk);
+            if (!builder.isEmpty() && builder.length() < maxChars && scheduledFlush == null && !flushDue) {
+                scheduledFlush = Schedulers.parallel().schedule(this::onFlushDue, maxDelayMs, TimeUnit.MILLISECONDS);
+            }
+            drain();
+        }
+
+        @Override
+        protected synchronized void hookOnComplete() {
+            upstreamDone = true;
+            drain();
+        }
+
+        @Override
+        protected synchronized void hookOnError(Throwable throwable) {
+            upstreamDone = true;
+            upstreamError = throwable;
+            drain();
+        }
+
+        @Override
+        protected synchronized void hookFinally(SignalType type) {
+            cancelScheduledFlush();
+        }
+
+        synchronized void onFlushDue() {
+            scheduledFlush = null;
+            flushDue = true;
+            drain();
+        }
+
+        /**
+         * 下游有请求时推送到期或写满的缓冲区，上游结束后推送剩余内容并结束下游，缓冲区未满时继续向上游请求
+         */
+        synchronized void drain() {
+            if (sink.isCancelled()) {
+                return;
+            }
+            boolean full = builder.length() >= maxChars;
+            if (!builder.isEmpty() && (flushDue || full || upstreamDone) && sink.requestedFromDownstream() > 0) {
+                String chunk = builder.toString();
+                builder.setLength(0);
+                flushDue = false;
+                cancelScheduledFlush();
+                sink.next(chunk);
+                full = false;
+            }
+            if (upstreamDone) {
+                if (builder.isEmpty()) {
+                    if (upstreamError != null) {
+                        sink.error(upstreamError);
+                    } else {
+                        sink.complete();
+                    }
+                }
+                return;
+            }
+            if (!full && !upstreamRequested && upstream() != null) {
+                upstreamRequested = true;
+                request(1);
+            }
+        }
+
+        private void cancelScheduledFlush() {
+            if (scheduledFlush != null) {
+                scheduledFlush.dispose();
+                scheduledFlush = null;
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.dong.dongaicodegenerator.core.handler;
 
+import com.dong.dongaicodegenerator.ai.model.message.StreamMessage;
+import com.dong.dongaicodegenerator.config.StreamCoalesceConfig;
 import com.dong.dongaicodegenerator.model.entity.User;
 import com.dong.dongaicodegenerator.model.enums.CodeGenTypeEnum;
 import com.dong.dongaicodegenerator.service.ChatHistoryService;
@@ -11,8 +13,9 @@ import reactor.core.publisher.Flux;
 /**
  * 流处理器执行器
  * 根据代码生成类型创建合适的流处理器：
- * 1. 传统的 Flux<String> 流（HTML、MULTI_FILE） -> SimpleTextStreamHandler
+ * 1. 纯文本 AI 响应流（HTML、MULTI_FILE） -> SimpleTextStreamHandler
  * 2. TokenStream 格式的复杂流（VUE_PROJECT） -> JsonMessageStreamHandler
+ * 处理后的片段按配置合并，减少推送给前端的 SSE 帧数
  */
 @Slf4j
 @Component
@@ -21,6 +24,9 @@ public class StreamHandlerExecutor {
     @Resource
     private JsonMessageStreamHandler jsonMessageStreamHandler;
 
+    @Resource
+    private StreamCoalesceConfig streamCoalesceConfig;
+
     /**
      * 创建流处理器并处理聊天历史记录
      *
@@ -31,14 +37,18 @@ public class StreamHandlerExecutor {
      * @param codeGenType        代码生成类型
      * @return 处理后的流
      */
-    public Flux<String> doExecute(Flux<String> originFlux,
+    public Flux<String> doExecute(Flux<StreamMessage> originFlux,
                                   ChatHistoryService chatHistoryService,
                                   long appId, User loginUser, CodeGenTypeEnum codeGenType) {
-        return switch (codeGenType) {
+        Flux<String> handledFlux = switch (codeGenType) {
             case VUE_PROJECT -> // 使用注入的组件实例
                     jsonMessageStreamHandler.handle(originFlux, chatHistoryService, appId, loginUser);
             case HTML, MULTI_FILE -> // 简单文本处理器不需要依赖注入
                     new SimpleTextStreamHandler().simpleTextStreamHandler(originFlux, chatHistoryService, appId, loginUser);
         };
+        if (!streamCoalesceConfig.isEnabled()) {
+            return handledFlux;
+        }
+        return StreamChunkCoalescer.coalesce(handledFlux, streamCoalesceConfig.getMaxDelayMs(), streamCoalesceConfig.getMaxChars());
     }
 }
@@ -0,0 +1,22 @@
+package com.dong.dongaicodegenerator.core.parser;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 流式解析出的单个代码块
+ */
+@Data
+@AllArgsConstructor
+public class CodeBlock {
+
+    /**
+     * 代码块语言（已归一化为小写，javascript 统一为 js）
+     */
+    private String language;
+
+    /**
+     * 代码内容（已去除首尾空白）
+     */
+    private String content;
+}
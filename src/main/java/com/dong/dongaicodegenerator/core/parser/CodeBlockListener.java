@@ -0,0 +1,43 @@
+package com.dong.dongaicodegenerator.core.parser;
+
+/**
+ * 流式代码块监听器
+ * 在代码块开始、内容到达、闭合时逐段回调，用于边解析边落盘等场景。
+ * 回调的内容已经过首尾空白裁剪，依次拼接即为完整的代码块内容
+ */
+public interface CodeBlockListener {
+
+    /**
+     * 代码块开始（只会对需要提取的语言回调）
+     *
+     * @param language 语言（已归一化）
+     */
+    default void onBlockStart(String language) {
+    }
+
+    /**
+     * 代码块内容片段
+     *
+     * @param language 语言
+     * @param fragment 内容片段
+     */
+    default void onBlockContent(String language, String fragment) {
+    }
+
+    /**
+     * 代码块正常闭合
+     *
+     * @param language 语言
+     * @param empty    代码块是否为空（为空时不会作为该语言的有效代码块）
+     */
+    default void onBlockEnd(String language, boolean empty) {
+    }
+
+    /**
+     * 流结束时代码块仍未闭合，已写出的内容需要丢弃
+     *
+     * @param language 语言
+     */
+    default void onBlockDiscard(String language) {
+    }
+}
@@ -37,4 +37,26 @@ public class CodeParserExecutor {
                     throw new BusinessException(ErrorCode.OPERATION_ERROR, "不支持的代码生成类型：" + codeGenTypeEnum);
         };
     }
+
+    /**
+     * 从流式解析器中组装代码解析结果
+     * @param streamingCodeParser 已消费完流式内容的解析器
+     * @param codeGenTypeEnum
+     * @return
+     */
+    public static Object executeStreamingCodeParser(StreamingCodeParser streamingCodeParser, CodeGenTypeEnum codeGenTypeEnum) {
+        if (ObjectUtil.isNull(streamingCodeParser)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR);
+        }
+        if (ObjectUtil.isNull(codeGenTypeEnum)) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "代码生成类型不能为空");
+        }
+        streamingCodeParser.finish();
+        return switch (codeGenTypeEnum) {
+            case HTML -> streamingCodeParser.toHtmlCodeResult();
+            case MULTI_FILE -> streamingCodeParser.toMultiFileCodeResult();
+            default ->
+                    throw new BusinessException(ErrorCode.OPERATION_ERROR, "不支持的代码生成类型：" + codeGenTypeEnum);
+        };
+    }
 }
@@ -0,0 +1,350 @@
+package com.dong.dongaicodegenerator.core.parser;
+
+import cn.hutool.core.util.StrUtil;
+import com.dong.dongaicodegenerator.ai.model.HtmlCodeResult;
+import com.dong.dongaicodegenerator.ai.model.MultiFileCodeResult;
+import com.dong.dongaicodegenerator.exception.BusinessException;
+import com.dong.dongaicodegenerator.exception.ErrorCode;
+import com.dong.dongaicodegenerator.exception.ThrowUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 流式代码解析器
+ * 以状态机的方式逐块消费 AI 返回的流式内容，边接收边识别 ```html / ```css / ```js 代码块，
+ * 代码块闭合时立即产出对应的文件内容，不再需要在流结束后对完整响应做一次正则全量扫描。
+ * 与 HtmlCodeParser / MultiFileCodeParser 保持一致：每种语言只取第一个非空代码块。
+ * 使用 CodeBlockListener 时，代码内容以片段形式实时交给监听器，解析器自身不再保留代码内容。
+ * 注意：每次生成需要创建新的实例，实例本身不是线程安全的
+ */
+@Slf4j
+public class StreamingCodeParser {
+
+    /**
+     * 代码块围栏长度（```）
+     */
+    private static final int FENCE_LENGTH = 3;
+
+    /**
+     * 需要提取的代码块语言，其余语言的代码块只跳过不缓存
+     */
+    private static final Set<String> SUPPORTED_LANGUAGES = Set.of("html", "css", "js");
+
+    private enum State {
+        // 代码块之外的普通文本
+        TEXT,
+        // 读取围栏后的语言标识
+        FENCE_INFO,
+        // 代码块内容
+        CODE
+    }
+
+    private final Consumer<CodeBlock> blockConsumer;
+
+    private final CodeBlockListener blockListener;
+
+    /**
+     * 是否在解析器内保留代码内容（用于组装 HtmlCodeResult / MultiFileCodeResult）
+     */
+    private final boolean retainCode;
+
+    private final Map<String, String> firstCodeByLanguage = new HashMap<>();
+
+    /**
+     * 已得到有效代码块的语言
+     */
+    private final Set<String> completedLanguages = new HashSet<>();
+
+    private final StringBuilder languageBuilder = new StringBuilder();
+
+    /**
+     * 本次 feed 中产生、尚未交给监听器的内容片段
+     */
+    private final StringBuilder fragmentBuilder = new StringBuilder();
+
+    /**
+     * 暂缓输出的空白字符，后续出现非空白字符时才写入，用于增量裁剪代码块末尾空白
+     */
+    private final StringBuilder pendingWhitespace = new StringBuilder();
+
+    private State state = State.TEXT;
+
+    /**
+     * 尚未确定含义的连续反引号数量（可能跨 chunk）
+     */
+    private int backtickCount;
+
+    /**
+     * 当前正在提取的代码块语言，为 null 表示当前代码块无需提取
+     */
+    private String capturingLanguage;
+
+    /**
+     * 当前代码块是否已出现非空白内容
+     */
+    private boolean blockHasContent;
+
+    /**
+     * 当前代码块内容，只在 retainCode 时使用
+     */
+    private StringBuilder codeBuilder;
+
+    /**
+     * 全部内容的兜底副本，与 HtmlCodeParser 一致：没有有效的 HTML 代码块时使用全部内容作为 HTML，
+     * 得到有效的 HTML 代码块后立即释放
+     */
+    private StringBuilder plainTextBuilder = new StringBuilder();
+
+    private boolean finished;
+
+    public StreamingCodeParser() {
+        this((Consumer<CodeBlock>) null);
+    }
+
+    /**
+     * @param blockConsumer 代码块闭合时的回调，可以为空
+     */
+    public StreamingCodeParser(Consumer<CodeBlock> blockConsumer) {
+        this(blockConsumer, null, true);
+    }
+
+    /**
+     * 代码内容只交给监听器，解析器不保留代码内容，此时 getCode 与 to*Result 只能用于纯文本兜底
+     *
+     * @param blockListener 代码块监听器
+     */
+    public StreamingCodeParser(CodeBlockListener blockListener) {
+        this(null, blockListener, false);
+    }
+
+    private StreamingCodeParser(Consumer<CodeBlock> blockConsumer, CodeBlockListener blockListener, boolean retainCode) {
+        this.blockConsumer = blockConsumer;
+        this.blockListener = blockListener;
+        this.retainCode = retainCode;
+    }
+
+    /**
+     * 消费一段流式内容
+     *
+     * @param chunk 流式片段
+     */
+    public void feed(String chunk) {
+        ThrowUtils.throwIf(finished, ErrorCode.OPERATION_ERROR, "代码解析已结束");
+        if (StrUtil.isEmpty(chunk)) {
+            return;
+        }
+        if (plainTextBuilder != null) {
+            plainTextBuilder.append(chunk);
+        }
+        for (int i = 0; i < chunk.length(); i++) {
+            char c = chunk.charAt(i);
+            switch (state) {
+                case TEXT -> consumeText(c);
+                case FENCE_INFO -> consumeFenceInfo(c);
+                case CODE -> consumeCode(c);
+            }
+        }
+        flushFragment();
+    }
+
+    /**
+     * 流结束，未闭合的代码块会被丢弃（与正则解析行为一致）
+     */
+    public void finish() {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (state != State.TEXT) {
+            log.warn("流式内容结束时代码块未闭合，已丢弃，语言：{}", languageBuilder);
+            if (capturingLanguage != null && blockListener != null) {
+                blockListener.onBlockDiscard(capturingLanguage);
+            }
+        }
+        capturingLanguage = null;
+        codeBuilder = null;
+    }
+
+    /**
+     * 某种语言是否已得到有效（非空且已闭合）的代码块
+     *
+     * @param language 语言
+     */
+    public boolean hasCode(String language) {
+        return completedLanguages.contains(normalizeLanguage(language));
+    }
+
+    /**
+     * 获取某种语言第一个代码块的内容
+     *
+     * @param language 语言
+     * @return 代码内容，不存在时返回 null
+     */
+    public String getCode(String language) {
+        return firstCodeByLanguage.get(normalizeLanguage(language));
+    }
+
+    /**
+     * 组装为单文件 HTML 结果
+     * 没有有效的 HTML 代码块时（包括只有其他语言或未标注语言的代码块），与 HtmlCodeParser 一样直接使用全部内容作为 HTML
+     */
+    public HtmlCodeResult toHtmlCodeResult() {
+        HtmlCodeResult htmlCodeResult = new HtmlCodeResult();
+        String htmlCode = getCode("html");
+        if (htmlCode == null && plainTextBuilder != null) {
+            htmlCode = StrUtil.trimToNull(plainTextBuilder.toString());
+        }
+        if (htmlCode == null) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, "未找到 HTML 代码块");
+        }
+        htmlCodeResult.setHtmlCode(htmlCode);
+        return htmlCodeResult;
+    }
+
+    /**
+     * 组装为多文件结果，缺少任一代码块时抛出异常（与 MultiFileCodeParser 一致）
+     */
+    public MultiFileCodeResult toMultiFileCodeResult() {
+        MultiFileCodeResult multiFileCodeResult = new MultiFileCodeResult();
+        multiFileCodeResult.setHtmlCode(requireCode("html", "未找到 HTML 代码块"));
+        multiFileCodeResult.setCssCode(requireCode("css", "未找到 CSS 代码块"));
+        multiFileCodeResult.setJsCode(requireCode("js", "未找到 JS 代码块"));
+        return multiFileCodeResult;
+    }
+
+    private String requireCode(String language, String message) {
+        String code = getCode(language);
+        if (code == null) {
+            throw new BusinessException(ErrorCode.OPERATION_ERROR, message);
+        }
+        return code;
+    }
+
+    private void consumeText(char c) {
+        if (c != '`') {
+            backtickCount = 0;
+            return;
+        }
+        if (++backtickCount == FENCE_LENGTH) {
+            backtickCount = 0;
+            languageBuilder.setLength(0);
+            state = State.FENCE_INFO;
+        }
+    }
+
+    private void consumeFenceInfo(char c) {
+        if (isLanguageChar(c)) {
+            languageBuilder.append(c);
+            return;
+        }
+        String language = normalizeLanguage(languageBuilder.toString());
+        boolean needCapture = SUPPORTED_LANGUAGES.contains(language) && !completedLanguages.contains(language);
+        state = State.CODE;
+        if (needCapture) {
+            capturingLanguage = language;
+            blockHasContent = false;
+            pendingWhitespace.setLength(0);
+            codeBuilder = retainCode ? new StringBuilder() : null;
+            if (blockListener != null) {
+                blockListener.onBlockStart(language);
+            }
+        }
+        consumeCode(c);
+    }
+
+    private void consumeCode(char c) {
+        if (c == '`') {
+            if (++backtickCount == FENCE_LENGTH) {
+                backtickCount = 0;
+                closeBlock();
+            }
+            return;
+        }
+        // 不足三个的反引号属于代码内容（如 JS 模板字符串）
+        if (capturingLanguage != null) {
+            for (; backtickCount > 0; backtickCount--) {
+                appendCode('`');
+            }
+            appendCode(c);
+        }
+        backtickCount = 0;
+    }
+
+    /**
+     * 追加代码字符，同时完成与 String.trim() 等价的增量首尾空白裁剪
+     */
+    private void appendCode(char c) {
+        if (c <= ' ') {
+            // 开头的空白直接丢弃，中间的空白等到后续出现非空白字符时再输出
+            if (blockHasContent) {
+                pendingWhitespace.append(c);
+            }
+            return;
+        }
+        blockHasContent = true;
+        if (!pendingWhitespace.isEmpty()) {
+            fragmentBuilder.append(pendingWhitespace);
+            pendingWhitespace.setLength(0);
+        }
+        fragmentBuilder.append(c);
+    }
+
+    private void flushFragment() {
+        if (capturingLanguage == null || fragmentBuilder.isEmpty()) {
+            return;
+        }
+        if (codeBuilder != null) {
+            codeBuilder.append(fragmentBuilder);
+        }
+        if (blockListener != null) {
+            blockListener.onBlockContent(capturingLanguage, fragmentBuilder.toString());
+        }
+        fragmentBuilder.setLength(0);
+    }
+
+    private void closeBlock() {
+        state = State.TEXT;
+        if (capturingLanguage == null) {
+            return;
+        }
+        flushFragment();
+        String language = capturingLanguage;
+        boolean empty = !blockHasContent;
+        String code = codeBuilder == null ? null : codeBuilder.toString();
+        capturingLanguage = null;
+        codeBuilder = null;
+        pendingWhitespace.setLength(0);
+        if (blockListener != null) {
+            blockListener.onBlockEnd(language, empty);
+        }
+        if (empty) {
+            return;
+        }
+        completedLanguages.add(language);
+        if ("html".equals(language)) {
+            // 已得到有效的 HTML 代码块，不再需要全部内容兜底
+            plainTextBuilder = null;
+        }
+        if (code == null) {
+            return;
+        }
+        firstCodeByLanguage.put(language, code);
+        if (blockConsumer != null) {
+            blockConsumer.accept(new CodeBlock(language, code));
+        }
+    }
+
+    private static boolean isLanguageChar(char c) {
+        return (c < 128 && Character.isLetterOrDigit(c)) || c == '-' || c == '_' || c == '+' || c == '#';
+    }
+
+    private static String normalizeLanguage(String language) {
+        String lowerCase = StrUtil.blankToDefault(language, "").toLowerCase();
+        return "javascript".equals(lowerCase) ? "js" : lowerCase;
+    }
+}
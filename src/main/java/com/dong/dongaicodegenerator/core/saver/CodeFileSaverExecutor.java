@@ -26,4 +26,19 @@ public class CodeFileSaverExecutor {
                 throw new BusinessException(ErrorCode.OPERATION_ERROR, "代码文件保存类型未支持");
         }
     }
+
+    /**
+     * 开启流式保存，代码块边生成边落盘
+     * @param codeGenTypeEnum
+     * @param appId
+     * @return
+     */
+    public static StreamingCodeFileSaver openStreamingSaver(CodeGenTypeEnum codeGenTypeEnum, Long appId) {
+        ThrowUtils.throwIf(ObjectUtil.isNull(codeGenTypeEnum), ErrorCode.OPERATION_ERROR, "代码文件保存类型异常");
+        return switch (codeGenTypeEnum) {
+            case HTML -> HTML_CODE_SAVER_TEMPLATE.openStreamingSaver(appId, codeGenTypeEnum);
+            case MULTI_FILE -> MULTI_FILE_CODE_SAVER_TEMPLATE.openStreamingSaver(appId, codeGenTypeEnum);
+            default -> throw new BusinessException(ErrorCode.OPERATION_ERROR, "代码文件保存类型未支持");
+        };
+    }
 }
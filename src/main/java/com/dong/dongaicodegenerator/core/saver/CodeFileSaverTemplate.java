@@ -11,6 +11,7 @@ import com.dong.dongaicodegenerator.model.enums.CodeGenTypeEnum;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.util.Set;
 
 public abstract class CodeFileSaverTemplate<T> {
 
@@ -27,6 +28,19 @@ public abstract class CodeFileSaverTemplate<T> {
      */
     protected abstract File doSaveCodeFile(T result, CodeGenTypeEnum codeGenTypeEnum, Long appId);
 
+    /**
+     * 代码块语言对应的文件名，流式保存时使用
+     * @param language 代码块语言
+     * @return 文件名，返回 null 表示该语言的代码块不需要保存
+     */
+    protected abstract String resolveFileName(String language);
+
+    /**
+     * 一个版本包含的全部代码文件名，流式保存替换第一个文件时删除上一版本的其余文件
+     * @return 文件名集合
+     */
+    protected abstract Set<String> getCodeFileNames();
+
     /**
      * 参数校验
      * @param result
@@ -51,6 +65,20 @@ public abstract class CodeFileSaverTemplate<T> {
         return new File(dirPath);
     }
 
+    /**
+     * 开启流式保存：代码块边生成边写入临时文件，代码块闭合时原子替换为正式文件
+     * @param appId
+     * @param codeGenTypeEnum
+     * @return 作为 CodeBlockListener 交给 StreamingCodeParser 使用的保存器
+     */
+    public final StreamingCodeFileSaver openStreamingSaver(Long appId, CodeGenTypeEnum codeGenTypeEnum) {
+        if (ObjectUtil.isNull(appId) || ObjectUtil.isNull(codeGenTypeEnum)) {
+            throw new BusinessException(ErrorCode.PARAMS_ERROR, "流式保存代码文件参数异常");
+        }
+        String dirPath = buildUniqueDir(codeGenTypeEnum, appId);
+        return new StreamingCodeFileSaver(new File(dirPath), this::resolveFileName, getCodeFileNames());
+    }
+
     /**
      * 构建代码文件存储路径以及唯一的代码目录名称
      * @param
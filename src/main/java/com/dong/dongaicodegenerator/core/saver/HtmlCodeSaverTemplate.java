@@ -8,6 +8,7 @@ import com.dong.dongaicodegenerator.exception.ErrorCode;
 import com.dong.dongaicodegenerator.model.enums.CodeGenTypeEnum;
 
 import java.io.File;
+import java.util.Set;
 
 public class HtmlCodeSaverTemplate extends CodeFileSaverTemplate<HtmlCodeResult> {
 
@@ -24,4 +25,14 @@ public class HtmlCodeSaverTemplate extends CodeFileSaverTemplate<HtmlCodeResult>
         writeToFile(uniqueDir, "index.html", result.getHtmlCode());
         return new File(uniqueDir);
     }
+
+    @Override
+    protected String resolveFileName(String language) {
+        return "html".equals(language) ? "index.html" : null;
+    }
+
+    @Override
+    protected Set<String> getCodeFileNames() {
+        return Set.of("index.html");
+    }
 }
@@ -7,6 +7,7 @@ import com.dong.dongaicodegenerator.exception.ErrorCode;
 import com.dong.dongaicodegenerator.model.enums.CodeGenTypeEnum;
 
 import java.io.File;
+import java.util.Set;
 
 public class MultiFileCodeSaverTemplate extends CodeFileSaverTemplate<MultiFileCodeResult>{
 
@@ -25,4 +26,19 @@ public class MultiFileCodeSaverTemplate extends CodeFileSaverTemplate<MultiFileC
         writeToFile(uniqueDir, "script.js", result.getJsCode());
         return new File(uniqueDir);
     }
+
+    @Override
+    protected String resolveFileName(String language) {
+        return switch (language) {
+            case "html" -> "index.html";
+            case "css" -> "style.css";
+            case "js" -> "script.js";
+            default -> null;
+        };
+    }
+
+    @Override
+    protected Set<String> getCodeFileNames() {
+        return Set.of("index.html", "style.css", "script.js");
+    }
 }
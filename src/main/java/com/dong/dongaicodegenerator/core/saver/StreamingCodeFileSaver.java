@@ -0,0 +1,214 @@
+package com.dong.dongaicodegenerator.core.saver;
+
+import cn.hutool.core.util.IdUtil;
+import com.dong.dongaicodegenerator.core.parser.CodeBlockListener;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * 流式代码文件保存器
+ * 代码块开始时在目标目录下创建临时文件，内容片段通过追加写的 FileChannel 实时落盘，
+ * 代码块闭合时原子重命名为正式文件，预览页面始终只会读到完整的文件，生成过程中即可预览。
+ * 第一个文件替换成功时删除上一版本的其他代码文件，目录中只保留本次生成已完成的文件，不会新旧版本混合；
+ * 流异常或被取消时已完成的文件保留。
+ * 同一时刻只会有一个代码块处于写入状态；流被取消时 abort 可能与写入并发，因此方法均加锁
+ */
+@Slf4j
+public class StreamingCodeFileSaver implements CodeBlockListener {
+
+    private static final String TEMP_FILE_SUFFIX = ".part";
+
+    private final File dir;
+
+    /**
+     * 代码块语言 -> 文件名，返回 null 表示不保存
+     */
+    private final UnaryOperator<String> fileNameResolver;
+
+    /**
+     * 一个版本包含的全部代码文件名
+     */
+    private final Set<String> codeFileNames;
+
+    private final List<String> savedFileNames = new ArrayList<>();
+
+    private String currentFileName;
+
+    private Path currentTempFile;
+
+    private FileChannel currentChannel;
+
+    /**
+     * 上一个片段末尾被截断的高位代理字符，需要和下一个片段拼接后再编码
+     */
+    private char pendingHighSurrogate;
+
+    StreamingCodeFileSaver(File dir, UnaryOperator<String> fileNameResolver, Set<String> codeFileNames) {
+        this.dir = dir;
+        this.fileNameResolver = fileNameResolver;
+        this.codeFileNames = codeFileNames;
+    }
+
+    @Override
+    public synchronized void onBlockStart(String language) {
+        // 上一个代码块理论上已闭合，这里兜底清理
+        discardCurrent();
+        String fileName = fileNameResolver.apply(language);
+        if (fileName == null) {
+            return;
+        }
+        Path tempFile = dir.toPath().resolve("." + fileName + "." + IdUtil.fastSimpleUUID() + TEMP_FILE_SUFFIX);
+        try {
+            currentChannel = FileChannel.open(tempFile,
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            currentFileName = fileName;
+            currentTempFile = tempFile;
+        } catch (IOException e) {
+            log.error("创建临时代码文件失败：{}", tempFile, e);
+        }
+    }
+
+    @Override
+    public synchronized void onBlockContent(String language, String fragment) {
+        if (currentChannel == null || fragment.isEmpty()) {
+            return;
+        }
+        String text = fragment;
+        if (pendingHighSurrogate != 0) {
+            text = pendingHighSurrogate + text;
+            pendingHighSurrogate = 0;
+        }
+        char last = text.charAt(text.length() - 1);
+        if (Character.isHighSurrogate(last)) {
+            pendingHighSurrogate = last;
+            text = text.substring(0, text.length() - 1);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        try {
+            while (buffer.hasRemaining()) {
+                currentChannel.write(buffer);
+            }
+        } catch (IOException e) {
+            log.error("写入临时代码文件失败：{}", currentTempFile, e);
+            discardCurrent();
+        }
+    }
+
+    @Override
+    public synchronized void onBlockEnd(String language, boolean empty) {
+        if (currentChannel == null) {
+            return;
+        }
+        if (empty) {
+            discardCurrent();
+            return;
+        }
+        try {
+            if (pendingHighSurrogate != 0) {
+                currentChannel.write(ByteBuffer.wrap(String.valueOf(pendingHighSurrogate).getBytes(StandardCharsets.UTF_8)));
+                pendingHighSurrogate = 0;
+            }
+            currentChannel.close();
+            Path target = dir.toPath().resolve(currentFileName);
+            moveIntoPlace(currentTempFile, target);
+            if (savedFileNames.isEmpty()) {
+                deletePreviousVersion(currentFileName);
+            }
+            // 同名文件只记录一次
+            if (!savedFileNames.contains(currentFileName)) {
+                savedFileNames.add(currentFileName);
+            }
+            log.info("代码文件流式保存完成：{}", target);
+        } catch (IOException e) {
+            log.error("保存代码文件失败：{}", currentFileName, e);
+            discardCurrent();
+            return;
+        }
+        currentChannel = null;
+        currentTempFile = null;
+        currentFileName = null;
+    }
+
+    @Override
+    public synchronized void onBlockDiscard(String language) {
+        discardCurrent();
+    }
+
+    /**
+     * 流异常或被取消时调用，清理尚未完成的临时文件，已完成的文件保持不变
+     */
+    public synchronized void abort() {
+        discardCurrent();
+    }
+
+    /**
+     * @return 已保存的文件名
+     */
+    public synchronized List<String> getSavedFileNames() {
+        return Collections.unmodifiableList(savedFileNames);
+    }
+
+    public File getDir() {
+        return dir;
+    }
+
+    private void moveIntoPlace(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * 删除上一版本中除刚替换的文件外的其他代码文件
+     */
+    private void deletePreviousVersion(String savedFileName) {
+        for (String codeFileName : codeFileNames) {
+            if (!codeFileName.equals(savedFileName)) {
+                deleteQuietly(dir.toPath().resolve(codeFileName));
+            }
+        }
+    }
+
+    private void discardCurrent() {
+        pendingHighSurrogate = 0;
+        if (currentChannel != null) {
+            try {
+                currentChannel.close();
+            } catch (IOException e) {
+                log.warn("关闭临时代码文件失败：{}", currentTempFile, e);
+            }
+        }
+        deleteQuietly(currentTempFile);
+        currentChannel = null;
+        currentTempFile = null;
+        currentFileName = null;
+    }
+
+    private void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除代码文件失败：{}", file, e);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.dong.dongaicodegenerator.manager;
+
+import com.dong.dongaicodegenerator.config.ChatHistoryWriteBehindConfig;
+import com.dong.dongaicodegenerator.mapper.ChatHistoryMapper;
+import com.dong.dongaicodegenerator.model.entity.ChatHistory;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对话历史异步批量写入管理器
+ * 对话记录先进入有界队列，由专用写入线程攒批后通过 ChatHistoryMapper 多行插入，
+ * 避免在模型的 I/O 线程上同步占用数据库连接。
+ * 队列满时由调用线程同步写入（反压），应用关闭时会把队列中剩余的记录全部写完
+ */
+@Component
+@Slf4j
+public class ChatHistoryWriteBehindManager {
+
+    @Resource
+    private ChatHistoryWriteBehindConfig chatHistoryWriteBehindConfig;
+
+    @Resource
+    private ChatHistoryMapper chatHistoryMapper;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private BlockingQueue<ChatHistory> queue;
+
+    private Thread writerThread;
+
+    private volatile boolean running;
+
+    private Counter enqueuedCounter;
+
+    private Counter callerRunsCounter;
+
+    private Counter writtenCounter;
+
+    private Counter failedCounter;
+
+    private Timer flushTimer;
+
+    @PostConstruct
+    public void init() {
+        queue = new ArrayBlockingQueue<>(chatHistoryWriteBehindConfig.getQueueCapacity());
+        Gauge.builder("chat_history.write_behind.queue.size", queue, BlockingQueue::size)
+                .description("等待写入的对话记录数")
+                .register(meterRegistry);
+        enqueuedCounter = meterRegistry.counter("chat_history.write_behind.enqueued");
+        callerRunsCounter = meterRegistry.counter("chat_history.write_behind.caller_runs");
+        writtenCounter = meterRegistry.counter("chat_history.write_behind.written");
+        failedCounter = meterRegistry.counter("chat_history.write_behind.failed");
+        flushTimer = meterRegistry.timer("chat_history.write_behind.flush");
+        if (!chatHistoryWriteBehindConfig.isEnabled()) {
+            return;
+        }
+        running = true;
+        writerThread = Thread.ofPlatform()
+                .name("chat-history-writer")
+                .daemon(true)
+                .start(this::writeLoop);
+    }
+
+    /**
+     * 提交一条待写入的对话记录
+     * 未开启、已关闭或队列已满时直接在调用线程同步写入
+     *
+     * @param chatHistory 已填充主键与创建时间的对话记录
+     */
+    public void submit(ChatHistory chatHistory) {
+        if (running && queue.offer(chatHistory)) {
+            enqueuedCounter.increment();
+            return;
+        }
+        if (running) {
+            callerRunsCounter.increment();
+            log.warn("对话历史写入队列已满，改为同步写入，appId={}", chatHistory.getAppId());
+        }
+        writeBatch(List.of(chatHistory));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (writerThread == null) {
+            return;
+        }
+        running = false;
+        try {
+            writerThread.join(chatHistoryWriteBehindConfig.getShutdownTimeoutMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // 写入线程已退出或超时，剩余记录由关闭线程兜底写完
+        flushRemaining();
+    }
+
+    private void writeLoop() {
+        int batchSize = chatHistoryWriteBehindConfig.getBatchSize();
+        List<ChatHistory> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                ChatHistory first = queue.poll(chatHistoryWriteBehindConfig.getFlushIntervalMs(), TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("对话历史写入线程异常", e);
+            } finally {
+                batch.clear();
+            }
+        }
+        flushRemaining();
+    }
+
+    private synchronized void flushRemaining() {
+        int batchSize = chatHistoryWriteBehindConfig.getBatchSize();
+        List<ChatHistory> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+
+    private void writeBatch(List<ChatHistory> batch) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            chatHistoryMapper.insertBatch(batch);
+            writtenCounter.increment(batch.size());
+        } catch (Exception e) {
+            log.error("批量写入对话历史失败，改为逐条写入，条数={}", batch.size(), e);
+            // 逐条重试，避免一条异常数据导致整批丢失
+            for (ChatHistory chatHistory : batch) {
+                try {
+                    chatHistoryMapper.insert(chatHistory);
+                    writtenCounter.increment();
+                } catch (Exception ex) {
+                    failedCounter.increment();
+                    log.error("写入对话历史失败，appId={}", chatHistory.getAppId(), ex);
+                }
+            }
+        } finally {
+            sample.stop(flushTimer);
+        }
+    }
+}
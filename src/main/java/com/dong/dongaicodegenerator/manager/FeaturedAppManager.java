@@ -0,0 +1,246 @@
+package com.dong.dongaicodegenerator.manager;
+
+import cn.hutool.core.bean.BeanUtil;
+import cn.hutool.core.util.StrUtil;
+import com.dong.dongaicodegenerator.config.FeaturedAppConfig;
+import com.dong.dongaicodegenerator.constant.AppConstant;
+import com.dong.dongaicodegenerator.mapper.AppMapper;
+import com.dong.dongaicodegenerator.model.dto.AppQueryRequest;
+import com.dong.dongaicodegenerator.model.entity.App;
+import com.dong.dongaicodegenerator.model.vo.AppVO;
+import com.dong.dongaicodegenerator.model.vo.UserVO;
+import com.mybatisflex.core.paginate.Page;
+import com.mybatisflex.core.query.QueryWrapper;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 精选应用快照管理器
+ * 首页的精选应用列表从内存中的不可变快照分页返回，不再每次查库和查询作者。
+ * 应用变更时递增 Redis 中的快照版本号，各实例读取时发现版本号变化即重建快照；
+ * 另有定时任务定期重建，兜底作者信息等不经过应用表的变更。
+ * 只支持按应用名称、生成类型筛选，以及按 id、时间字段排序，其他查询条件返回 null 由调用方查库
+ */
+@Component
+@Slf4j
+public class FeaturedAppManager {
+
+    private static final String VERSION_KEY = "featured_app:version";
+
+    private static final Map<String, Comparator<AppVO>> SORT_COMPARATORS = Map.of(
+            "id", Comparator.comparing(AppVO::getId, Comparator.nullsFirst(Comparator.<Long>naturalOrder())),
+            "createTime", timeComparator(AppVO::getCreateTime),
+            "updateTime", timeComparator(AppVO::getUpdateTime),
+            "deployedTime", timeComparator(AppVO::getDeployedTime)
+    );
+
+    @Resource
+    private FeaturedAppConfig featuredAppConfig;
+
+    @Resource
+    private AppMapper appMapper;
+
+    @Resource
+    private UserVOBatchLoader userVOBatchLoader;
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    private final Object rebuildLock = new Object();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * 从快照中分页获取精选应用
+     *
+     * @param appQueryRequest 查询请求
+     * @return 分页结果，快照无法满足该查询时返回 null
+     */
+    public Page<AppVO> getPage(AppQueryRequest appQueryRequest) {
+        if (!featuredAppConfig.isSnapshotEnabled() || !isSupported(appQueryRequest)) {
+            return null;
+        }
+        Snapshot current = currentSnapshot();
+        if (current == null || current.overflow) {
+            return null;
+        }
+        Stream<AppVO> stream = current.apps.stream();
+        String appName = appQueryRequest.getAppName();
+        if (appName != null) {
+            // 与数据库默认排序规则的 like 一致，不区分大小写
+            String keyword = appName.toLowerCase(Locale.ROOT);
+            stream = stream.filter(app -> app.getAppName() != null
+                    && app.getAppName().toLowerCase(Locale.ROOT).contains(keyword));
+        }
+        String codeGenType = appQueryRequest.getCodeGenType();
+        if (codeGenType != null) {
+            stream = stream.filter(app -> codeGenType.equals(app.getCodeGenType()));
+        }
+        String sortField = appQueryRequest.getSortField();
+        if (StrUtil.isNotBlank(sortField)) {
+            // 与数据库查询一致，排序值相同时按 id 同向排序
+            Comparator<AppVO> comparator = SORT_COMPARATORS.get(sortField).thenComparing(AppVO::getId);
+            if (!"ascend".equals(appQueryRequest.getSortOrder())) {
+                comparator = comparator.reversed();
+            }
+            stream = stream.sorted(comparator);
+        }
+        List<AppVO> matched = stream.toList();
+        long pageNum = appQueryRequest.getPageNum();
+        long pageSize = appQueryRequest.getPageSize();
+        int fromIndex = (int) Math.min((pageNum - 1) * pageSize, matched.size());
+        int toIndex = (int) Math.min(fromIndex + pageSize, matched.size());
+        Page<AppVO> page = new Page<>(pageNum, pageSize, matched.size());
+        page.setRecords(new ArrayList<>(matched.subList(fromIndex, toIndex)));
+        return page;
+    }
+
+    /**
+     * 判断应用是否在当前快照中，用于决定应用变更后是否需要让快照失效
+     *
+     * @param appId 应用 ID
+     * @return 在快照中或快照尚未建立时返回 true
+     */
+    public boolean mayContain(Long appId) {
+        Snapshot current = snapshot;
+        return current == null || current.overflow || current.appIds.contains(appId);
+    }
+
+    /**
+     * 精选应用发生变化后调用，使所有实例的快照在下一次读取时重建
+     */
+    public void invalidate() {
+        snapshot = null;
+        try {
+            stringRedisTemplate.opsForValue().increment(VERSION_KEY);
+        } catch (Exception e) {
+            log.error("更新精选应用快照版本号失败，其他实例的快照将在定时重建时刷新", e);
+        }
+    }
+
+    /**
+     * 定时重建快照
+     */
+    @Scheduled(initialDelayString = "${featured-app.refresh-interval-ms:300000}",
+            fixedDelayString = "${featured-app.refresh-interval-ms:300000}")
+    public void refresh() {
+        if (!featuredAppConfig.isSnapshotEnabled()) {
+            return;
+        }
+        try {
+            synchronized (rebuildLock) {
+                rebuild(readVersion());
+            }
+        } catch (Exception e) {
+            log.error("定时重建精选应用快照失败", e);
+        }
+    }
+
+    private boolean isSupported(AppQueryRequest appQueryRequest) {
+        String sortField = appQueryRequest.getSortField();
+        return appQueryRequest.getId() == null
+                && appQueryRequest.getLastId() == null
+                && StrUtil.isBlank(appQueryRequest.getSearchText())
+                && appQueryRequest.getCover() == null
+                && appQueryRequest.getInitPrompt() == null
+                && appQueryRequest.getDeployKey() == null
+                && appQueryRequest.getUserId() == null
+                && Objects.equals(appQueryRequest.getPriority(), AppConstant.GOOD_APP_PRIORITY)
+                && (StrUtil.isBlank(sortField) || SORT_COMPARATORS.containsKey(sortField))
+                && appQueryRequest.getPageNum() >= 1
+                && appQueryRequest.getPageSize() >= 1;
+    }
+
+    /**
+     * 获取与 Redis 版本号一致的快照，不一致时重建；读取版本号失败时继续使用本地快照
+     */
+    private Snapshot currentSnapshot() {
+        String version = readVersion();
+        Snapshot current = snapshot;
+        if (current != null && (version == null || version.equals(current.version))) {
+            return current;
+        }
+        synchronized (rebuildLock) {
+            current = snapshot;
+            if (current != null && (version == null || version.equals(current.version))) {
+                return current;
+            }
+            return rebuild(version);
+        }
+    }
+
+    private String readVersion() {
+        try {
+            return Objects.toString(stringRedisTemplate.opsForValue().get(VERSION_KEY), "0");
+        } catch (Exception e) {
+            log.warn("读取精选应用快照版本号失败，使用本地快照", e);
+            return null;
+        }
+    }
+
+    /**
+     * 重建快照：先读版本号再查库，查库期间发生的变更会使版本号再次变化，下次读取时重建
+     */
+    private Snapshot rebuild(String version) {
+        int maxSize = featuredAppConfig.getMaxSnapshotSize();
+        QueryWrapper queryWrapper = QueryWrapper.create()
+                .eq(App::getPriority, AppConstant.GOOD_APP_PRIORITY)
+                .orderBy(App::getId, true)
+                .limit(maxSize + 1);
+        List<App> apps = appMapper.selectListByQuery(queryWrapper);
+        Snapshot rebuilt = new Snapshot();
+        rebuilt.version = Objects.toString(version, "");
+        if (apps.size() > maxSize) {
+            log.warn("精选应用数量超过快照上限 {}，改为查询数据库", maxSize);
+            rebuilt.overflow = true;
+            rebuilt.apps = List.of();
+            rebuilt.appIds = Set.of();
+        } else {
+            Map<Long, UserVO> userVOMap = userVOBatchLoader.loadAll(apps.stream().map(App::getUserId).toList());
+            rebuilt.apps = apps.stream().map(app -> {
+                AppVO appVO = BeanUtil.copyProperties(app, AppVO.class);
+                appVO.setUser(userVOMap.get(app.getUserId()));
+                return appVO;
+            }).toList();
+            rebuilt.appIds = apps.stream().map(App::getId).collect(Collectors.toUnmodifiableSet());
+        }
+        snapshot = rebuilt;
+        return rebuilt;
+    }
+
+    /**
+     * 与 MySQL 一致：升序时 null 在前，降序时 null 在后
+     */
+    private static Comparator<AppVO> timeComparator(Function<AppVO, LocalDateTime> getter) {
+        return Comparator.comparing(getter, Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder()));
+    }
+
+    /**
+     * 精选应用快照，按 id 升序，创建后不再修改
+     */
+    private static final class Snapshot {
+
+        private String version;
+
+        private boolean overflow;
+
+        private List<AppVO> apps;
+
+        private Set<Long> appIds;
+    }
+}
@@ -0,0 +1,117 @@
+package com.dong.dongaicodegenerator.manager;
+
+import com.dong.dongaicodegenerator.model.entity.User;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * 登录用户缓存管理器
+ * 本地缓存用户记录，并在 Redis 中为每个用户保存版本号，用户被修改或删除时递增版本号。
+ * 每次读取只需查询一次 Redis 版本号，与本地缓存的版本一致时直接返回，否则重新查库，
+ * 多实例部署时角色变更也能立即生效。Redis 不可用时退化为直接查库。
+ * 返回的用户对象在多个请求间共享，调用方不应修改
+ */
+@Component
+@Slf4j
+public class LoginUserCacheManager {
+
+    private static final String VERSION_KEY_PREFIX = "user:version:";
+
+    /**
+     * 用户缓存
+     * 缓存策略：
+     * - 最大缓存 10000 个用户
+     * - 写入后 10 分钟过期，作为版本号丢失时的兜底
+     */
+    private final Cache<Long, CachedUser> userCache = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(Duration.ofMinutes(10))
+            .build();
+
+    @Resource
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private Counter hitCounter;
+
+    private Counter missCounter;
+
+    @PostConstruct
+    public void init() {
+        hitCounter = meterRegistry.counter("login_user.cache.hit");
+        missCounter = meterRegistry.counter("login_user.cache.miss");
+    }
+
+    /**
+     * 获取用户，本地缓存的版本与 Redis 中的版本一致时不查库
+     *
+     * @param userId 用户 ID
+     * @param loader 缓存未命中时查询用户的方法
+     * @return 用户，不存在返回 null
+     */
+    public User getUser(Long userId, Function<Long, User> loader) {
+        String version;
+        try {
+            version = Objects.toString(stringRedisTemplate.opsForValue().get(VERSION_KEY_PREFIX + userId), "0");
+        } catch (Exception e) {
+            log.warn("读取用户版本号失败，直接查询数据库，用户 ID：{}", userId, e);
+            return loader.apply(userId);
+        }
+        CachedUser cachedUser = userCache.getIfPresent(userId);
+        if (cachedUser != null && cachedUser.version.equals(version)) {
+            hitCounter.increment();
+            return cachedUser.user;
+        }
+        missCounter.increment();
+        // 先读版本号再查库：查库期间用户被修改时缓存的是旧版本号，下次读取会重新查库
+        User user = loader.apply(userId);
+        if (user != null) {
+            userCache.put(userId, new CachedUser(user, version));
+        } else {
+            userCache.invalidate(userId);
+        }
+        return user;
+    }
+
+    /**
+     * 用户被修改或删除后调用，使所有实例上缓存的该用户失效
+     *
+     * @param userId 用户 ID
+     */
+    public void invalidate(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        userCache.invalidate(userId);
+        try {
+            stringRedisTemplate.opsForValue().increment(VERSION_KEY_PREFIX + userId);
+        } catch (Exception e) {
+            log.error("更新用户版本号失败，其他实例的缓存将在过期后刷新，用户 ID：{}", userId, e);
+        }
+    }
+
+    private static final class CachedUser {
+
+        private final User user;
+
+        private final String version;
+
+        private CachedUser(User user, String version) {
+            this.user = user;
+            this.version = version;
+        }
+    }
+}
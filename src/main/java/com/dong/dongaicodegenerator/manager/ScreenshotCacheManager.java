@@ -0,0 +1,47 @@
+package com.dong.dongaicodegenerator.manager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 截图缓存管理器
+ * 以部署目录的内容哈希为键缓存已上传的封面 URL，内容完全相同的重新部署直接复用封面，
+ * 不再启动浏览器截图和上传 COS
+ */
+@Component
+public class ScreenshotCacheManager {
+
+    /**
+     * 封面缓存
+     * 缓存策略：
+     * - 最大缓存 10000 个封面
+     * - 写入后 7 天过期
+     */
+    private final Cache<String, String> coverCache = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(Duration.ofDays(7))
+            .build();
+
+    /**
+     * 获取内容哈希对应的封面 URL
+     *
+     * @param contentHash 部署目录的内容哈希
+     * @return 封面 URL，未命中返回 null
+     */
+    public String getCover(String contentHash) {
+        return coverCache.getIfPresent(contentHash);
+    }
+
+    /**
+     * 记录内容哈希对应的封面 URL
+     *
+     * @param contentHash 部署目录的内容哈希
+     * @param coverUrl    封面 URL
+     */
+    public void putCover(String contentHash, String coverUrl) {
+        coverCache.put(contentHash, coverUrl);
+    }
+}
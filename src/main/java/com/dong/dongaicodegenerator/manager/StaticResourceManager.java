@@ -0,0 +1,319 @@
+package com.dong.dongaicodegenerator.manager;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.io.IORuntimeException;
+import cn.hutool.crypto.digest.DigestUtil;
+import com.dong.dongaicodegenerator.config.StaticResourceConfig;
+import com.dong.dongaicodegenerator.utils.GzipUtils;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+
+/**
+ * 静态资源管理器
+ * 缓存静态文件的元数据（大小、修改时间、强 ETag、Content-Type、gzip 压缩版本），
+ * 每次请求只读取一次文件属性，文件未变化时直接复用缓存，不再计算 ETag 和压缩。
+ * 部署时生成的同名 .gz 文件优先使用，预览文件的压缩结果在首次请求时生成到缓存目录。
+ * 小文件的内容在计算 ETag 时只读取一次，计算 ETag 的字节即缓存的内容，以直接内存（堆外）缓存，
+ * 按文件路径和 ETag 寻址，内容变化后自然不会命中旧内容，内容相同的不同文件也互不影响
+ */
+@Slf4j
+@Component
+public class StaticResourceManager {
+
+    @Resource
+    private StaticResourceConfig staticResourceConfig;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 文件内容缓存，键为所发送版本（原文件或 gzip 版本）的路径和 ETag，值为只读的直接内存
+     * 缓存策略：
+     * - 按字节数计算权重，总量上限见 {@link StaticResourceConfig#getMemoryCacheMaxBytes()}
+     * - 对应的元数据被移除时一并移除
+     */
+    private Cache<String, ByteBuffer> contentCache;
+
+    /**
+     * 元数据缓存，键为文件的绝对路径
+     * 缓存策略：
+     * - 最大缓存数量见 {@link StaticResourceConfig#getMetadataCacheSize()}
+     * - 访问后 30 分钟过期，过期或文件变化时删除缓存目录中对应的压缩文件
+     */
+    private Cache<Path, StaticFile> metadataCache;
+
+    @PostConstruct
+    public void init() {
+        // 上次运行生成的压缩文件没有对应的元数据，直接清空
+        FileUtil.del(staticResourceConfig.getGzipCacheDir());
+        contentCache = Caffeine.newBuilder()
+                .maximumWeight(staticResourceConfig.getMemoryCacheMaxBytes())
+                .weigher((String etag, ByteBuffer content) -> content.capacity())
+                .recordStats()
+                .build();
+        Gauge.builder("static_resource.memory_cache.hit_ratio", contentCache, cache -> cache.stats().hitRate())
+                .description("静态文件内存缓存命中率")
+                .register(meterRegistry);
+        Gauge.builder("static_resource.memory_cache.bytes", contentCache,
+                        cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0L)).orElse(0L))
+                .description("静态文件内存缓存占用的字节数")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        metadataCache = Caffeine.newBuilder()
+                .maximumSize(staticResourceConfig.getMetadataCacheSize())
+                .expireAfterAccess(Duration.ofMinutes(30))
+                .removalListener((Path path, StaticFile staticFile, RemovalCause cause) -> {
+                    if (staticFile != null) {
+                        staticFile.deleteCachedGzip();
+                        contentCache.invalidate(contentKey(staticFile.getPath(), staticFile.getEtag()));
+                        if (staticFile.getGzipPath() != null) {
+                            contentCache.invalidate(contentKey(staticFile.getGzipPath(), staticFile.getGzipEtag()));
+                        }
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * 解析根目录下的静态文件
+     *
+     * @param rootDir      根目录
+     * @param relativePath 相对根目录的路径
+     * @return 静态文件，文件不存在、不是普通文件或路径越出根目录时返回 null
+     */
+    public StaticFile resolve(Path rootDir, String relativePath) {
+        Path root = rootDir.toAbsolutePath().normalize();
+        Path path = root.resolve(relativePath.startsWith("/") ? relativePath.substring(1) : relativePath).normalize();
+        if (!path.startsWith(root)) {
+            return null;
+        }
+        BasicFileAttributes attrs;
+        try {
+            attrs = Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (IOException e) {
+            metadataCache.invalidate(path);
+            return null;
+        }
+        if (!attrs.isRegularFile()) {
+            return null;
+        }
+        long size = attrs.size();
+        long lastModified = attrs.lastModifiedTime().toMillis();
+        try {
+            return metadataCache.asMap().compute(path, (key, cached) ->
+                    cached != null && cached.size == size && cached.lastModified == lastModified
+                            ? cached : load(key, size, lastModified));
+        } catch (IORuntimeException e) {
+            log.error("读取静态文件失败: {}", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * 获取文件内容的内存缓存，文件超过大小上限时返回 null，由调用方直接读取文件
+     *
+     * @param staticFile 静态文件
+     * @param gzip       是否为 gzip 版本
+     * @return 只读的文件内容，每次调用返回独立的读取位置
+     */
+    public ByteBuffer getContent(StaticFile staticFile, boolean gzip) {
+        long size = gzip ? staticFile.getGzipSize() : staticFile.getSize();
+        if (size > staticResourceConfig.getMemoryCacheMaxFileSize()) {
+            return null;
+        }
+        Path path = gzip ? staticFile.getGzipPath() : staticFile.getPath();
+        String etag = gzip ? staticFile.getGzipEtag() : staticFile.getEtag();
+        try {
+            // 缓存目录中的压缩文件按内容命名、不会被改写，原文件被淘汰后重新读取时需要确认内容与 ETag 一致
+            ByteBuffer content = contentCache.get(contentKey(path, etag),
+                    key -> gzip ? readToDirectBuffer(path) : readIfUnchanged(path, etag));
+            return content == null ? null : content.asReadOnlyBuffer();
+        } catch (IORuntimeException e) {
+            log.warn("读取静态文件到内存失败: {}", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * 移除目录下所有文件的缓存，代码重新生成或部署后调用，及时释放旧内容占用的内存
+     *
+     * @param dir 目录
+     */
+    public void invalidateDirectory(Path dir) {
+        Path root = dir.toAbsolutePath().normalize();
+        metadataCache.asMap().keySet().removeIf(path -> path.startsWith(root));
+    }
+
+    private static String contentKey(Path path, String etag) {
+        return path + "#" + etag;
+    }
+
+    /**
+     * 读取原文件，内容已与 ETag 不一致（文件刚被改写）时返回 null，由调用方直接读取文件
+     */
+    private static ByteBuffer readIfUnchanged(Path path, String etag) {
+        byte[] content = FileUtil.readBytes(path);
+        return etag.equals(toEtag(DigestUtil.sha256Hex(content))) ? toDirectBuffer(content) : null;
+    }
+
+    private static ByteBuffer toDirectBuffer(byte[] content) {
+        return ByteBuffer.allocateDirect(content.length).put(content).flip();
+    }
+
+    private static String toEtag(String contentHash) {
+        return "\"" + contentHash + "\"";
+    }
+
+    private static ByteBuffer readToDirectBuffer(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect((int) channel.size());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) {
+                    break;
+                }
+            }
+            return buffer.flip();
+        } catch (IOException e) {
+            throw new IORuntimeException(e);
+        }
+    }
+
+    private StaticFile load(Path path, long size, long lastModified) {
+        String fileName = path.getFileName().toString();
+        // 小文件只读取一次，ETag、压缩结果和内存缓存都基于这一份内容，读取期间文件被改写也不会错配
+        byte[] content = size <= staticResourceConfig.getMemoryCacheMaxFileSize() ? FileUtil.readBytes(path) : null;
+        String contentHash = content != null ? DigestUtil.sha256Hex(content) : DigestUtil.sha256Hex(path.toFile());
+        long contentSize = content != null ? content.length : size;
+        StaticFile staticFile = new StaticFile(path, contentSize, lastModified, toEtag(contentHash), resolveContentType(fileName));
+        if (content != null) {
+            contentCache.put(contentKey(path, staticFile.getEtag()), toDirectBuffer(content));
+        }
+        if (GzipUtils.shouldCompress(fileName, contentSize)) {
+            try {
+                resolveGzip(staticFile, contentHash, content);
+            } catch (IOException e) {
+                // 压缩失败不影响访问，发送原文件
+                log.warn("生成 gzip 压缩文件失败: {}", path, e);
+            }
+        }
+        return staticFile;
+    }
+
+    /**
+     * 查找或生成文件的 gzip 版本，压缩后没有变小时不使用
+     *
+     * @param content 已读取的文件内容，为 null 时从文件压缩
+     */
+    private void resolveGzip(StaticFile staticFile, String contentHash, byte[] content) throws IOException {
+        Path path = staticFile.path;
+        Path siblingGzip = path.resolveSibling(path.getFileName() + GzipUtils.GZIP_SUFFIX);
+        if (Files.isRegularFile(siblingGzip) && Files.getLastModifiedTime(siblingGzip).toMillis() >= staticFile.lastModified) {
+            staticFile.gzipPath = siblingGzip;
+        } else {
+            Path cacheDir = Paths.get(staticResourceConfig.getGzipCacheDir());
+            Files.createDirectories(cacheDir);
+            // 文件名包含路径哈希、内容哈希和修改时间，不同文件、同一文件的不同版本互不覆盖，
+            // 旧版本的压缩文件被异步删除时不会误删新版本
+            Path cachedGzip = cacheDir.resolve(DigestUtil.sha256Hex(path.toString()) + "-"
+                    + contentHash.substring(0, 16) + "-" + staticFile.lastModified + GzipUtils.GZIP_SUFFIX);
+            if (content != null) {
+                GzipUtils.gzip(content, cachedGzip);
+            } else {
+                GzipUtils.gzip(path, cachedGzip);
+            }
+            staticFile.gzipPath = cachedGzip;
+            staticFile.cachedGzip = true;
+        }
+        staticFile.gzipSize = Files.size(staticFile.gzipPath);
+        if (staticFile.gzipSize >= staticFile.size) {
+            staticFile.deleteCachedGzip();
+            staticFile.gzipPath = null;
+        }
+    }
+
+    /**
+     * 根据文件名确定 Content-Type，文本类型统一使用 UTF-8 编码
+     */
+    private static MediaType resolveContentType(String fileName) {
+        MediaType mediaType = MediaTypeFactory.getMediaType(fileName).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        boolean isText = "text".equals(mediaType.getType())
+                || mediaType.getSubtype().equals("javascript")
+                || mediaType.getSubtype().equals("json")
+                || mediaType.getSubtype().endsWith("+xml");
+        return isText ? new MediaType(mediaType, StandardCharsets.UTF_8) : mediaType;
+    }
+
+    /**
+     * 静态文件元数据
+     */
+    @Getter
+    public static class StaticFile {
+
+        private final Path path;
+
+        private final long size;
+
+        private final long lastModified;
+
+        /**
+         * 强 ETag，取文件内容的 SHA-256
+         */
+        private final String etag;
+
+        private final MediaType contentType;
+
+        /**
+         * gzip 压缩版本，没有时为 null
+         */
+        private Path gzipPath;
+
+        private long gzipSize;
+
+        /**
+         * 压缩版本是否位于缓存目录，缓存目录中的压缩文件随元数据一起删除
+         */
+        private boolean cachedGzip;
+
+        private StaticFile(Path path, long size, long lastModified, String etag, MediaType contentType) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.etag = etag;
+            this.contentType = contentType;
+        }
+
+        /**
+         * 压缩版本的 ETag，与原文件的 ETag 区分
+         */
+        public String getGzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gzip\"";
+        }
+
+        private void deleteCachedGzip() {
+            if (cachedGzip && gzipPath != null) {
+                FileUtil.del(gzipPath);
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.dong.dongaicodegenerator.manager;
+
+import cn.hutool.core.bean.BeanUtil;
+import com.dong.dongaicodegenerator.mapper.UserMapper;
+import com.dong.dongaicodegenerator.model.entity.User;
+import com.dong.dongaicodegenerator.model.vo.UserVO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.Resource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 用户视图批量加载器
+ * 应用列表、详情等接口中的作者信息统一从这里获取：同一请求内已加载的用户直接复用，
+ * 其余用户先查短时缓存，缓存未命中的用户合并为一次 IN 查询。
+ * 返回的用户视图在多个请求间共享，调用方不应修改
+ */
+@Component
+public class UserVOBatchLoader {
+
+    /**
+     * 当前请求中已加载的用户，值为 null 表示用户不存在
+     */
+    private static final String REQUEST_MEMO_ATTR = UserVOBatchLoader.class.getName() + ".MEMO";
+
+    /**
+     * 用户视图缓存
+     * 缓存策略：
+     * - 最大缓存 10000 个用户
+     * - 写入后 30 秒过期，用户修改资料后很快可见
+     */
+    private final Cache<Long, UserVO> userVOCache = Caffeine.newBuilder()
+            .maximumSize(10000)
+            .expireAfterWrite(Duration.ofSeconds(30))
+            .build();
+
+    @Resource
+    private UserMapper userMapper;
+
+    /**
+     * 加载单个用户视图
+     *
+     * @param userId 用户 ID
+     * @return 用户视图，用户不存在返回 null
+     */
+    public UserVO load(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return loadAll(List.of(userId)).get(userId);
+    }
+
+    /**
+     * 批量加载用户视图，最多查询一次数据库
+     *
+     * @param userIds 用户 ID，可以重复或包含 null
+     * @return 用户 ID 到用户视图的映射，不包含不存在的用户
+     */
+    public Map<Long, UserVO> loadAll(Collection<Long> userIds) {
+        Set<Long> ids = userIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        Map<Long, UserVO> result = new HashMap<>();
+        if (ids.isEmpty()) {
+            return result;
+        }
+        Map<Long, UserVO> requestMemo = getRequestMemo();
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : ids) {
+            if (requestMemo != null && requestMemo.containsKey(id)) {
+                UserVO userVO = requestMemo.get(id);
+                if (userVO != null) {
+                    result.put(id, userVO);
+                }
+            } else {
+                missingIds.add(id);
+            }
+        }
+        if (missingIds.isEmpty()) {
+            return result;
+        }
+        Map<Long, UserVO> loaded = userVOCache.getAll(missingIds, this::queryUserVOs);
+        for (Long id : missingIds) {
+            UserVO userVO = loaded.get(id);
+            if (userVO != null) {
+                result.put(id, userVO);
+            }
+            if (requestMemo != null) {
+                requestMemo.put(id, userVO);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 用户被修改或删除后调用，使缓存的用户视图失效
+     *
+     * @param userId 用户 ID
+     */
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            userVOCache.invalidate(userId);
+        }
+    }
+
+    private Map<Long, UserVO> queryUserVOs(Set<? extends Long> userIds) {
+        return userMapper.selectListByIds(userIds).stream()
+                .collect(Collectors.toMap(User::getId, user -> BeanUtil.copyProperties(user, UserVO.class)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Long, UserVO> getRequestMemo() {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        if (requestAttributes == null) {
+            return null;
+        }
+        Object memo = requestAttributes.getAttribute(REQUEST_MEMO_ATTR, RequestAttributes.SCOPE_REQUEST);
+        if (memo == null) {
+            memo = new HashMap<Long, UserVO>();
+            requestAttributes.setAttribute(REQUEST_MEMO_ATTR, memo, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Map<Long, UserVO>) memo;
+    }
+}
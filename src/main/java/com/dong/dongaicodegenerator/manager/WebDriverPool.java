@@ -0,0 +1,302 @@
+package com.dong.dongaicodegenerator.manager;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.StrUtil;
+import com.dong.dongaicodegenerator.config.ScreenshotConfig;
+import com.dong.dongaicodegenerator.exception.BusinessException;
+import com.dong.dongaicodegenerator.exception.ErrorCode;
+import com.dong.dongaicodegenerator.exception.ThrowUtils;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 无头 Chrome 浏览器池
+ * 浏览器按需创建，数量不超过 poolSize；获取不到许可的截图任务按先后顺序排队等待。
+ * 借出前检查浏览器是否存活，截图满 maxPagesPerDriver 个页面或使用中出错的实例会被关闭重建。
+ * 应用就绪后在后台准备 ChromeDriver 并预热浏览器，预热状态通过健康检查端点暴露。
+ * 截图不是核心功能，预热失败时健康状态为 UNKNOWN，不会拉低整体健康状态；之后成功创建浏览器即恢复为 READY
+ */
+@Component
+@Slf4j
+public class WebDriverPool implements HealthIndicator {
+
+    @Resource
+    private ScreenshotConfig screenshotConfig;
+
+    @Resource
+    private MeterRegistry meterRegistry;
+
+    private final BlockingQueue<PooledWebDriver> idleDrivers = new LinkedBlockingQueue<>();
+
+    private Semaphore permits;
+
+    private volatile boolean driverBinaryReady;
+
+    private volatile boolean closed;
+
+    private volatile WarmUpState warmUpState = WarmUpState.PENDING;
+
+    /**
+     * 预热失败的原因
+     */
+    private volatile Exception warmUpError;
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(screenshotConfig.getPoolSize(), true);
+        Gauge.builder("screenshot.pool.idle", idleDrivers, BlockingQueue::size)
+                .description("空闲的浏览器实例数")
+                .register(meterRegistry);
+        Gauge.builder("screenshot.pool.waiting", this, pool -> pool.permits.getQueueLength())
+                .description("等待浏览器的截图任务数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 应用就绪后在后台预热，不阻塞启动和请求线程
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpAsync() {
+        Thread.ofVirtual()
+                .name("screenshot-warm-up")
+                .start(this::warmUp);
+    }
+
+    private void warmUp() {
+        warmUpState = WarmUpState.WARMING_UP;
+        long start = System.currentTimeMillis();
+        try {
+            setupDriverBinary();
+            int warmUpDrivers = Math.min(screenshotConfig.getWarmUpDrivers(), screenshotConfig.getPoolSize());
+            for (int i = 0; i < warmUpDrivers && !closed; i++) {
+                // 只占用空闲的许可，截图任务已经用满时不再额外创建
+                if (!permits.tryAcquire()) {
+                    break;
+                }
+                try {
+                    WebDriver driver = createDriver();
+                    // 打开空白页完成渲染进程的初始化
+                    driver.get("about:blank");
+                    idleDrivers.offer(new PooledWebDriver(driver));
+                } finally {
+                    permits.release();
+                }
+            }
+            warmUpState = WarmUpState.READY;
+            log.info("截图浏览器预热完成，耗时 {} ms", System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // 预热失败不影响截图任务，借出时会再次尝试创建
+            warmUpError = e;
+            warmUpState = WarmUpState.FAILED;
+            log.error("截图浏览器预热失败", e);
+        }
+    }
+
+    @Override
+    public Health health() {
+        Health.Builder builder = switch (warmUpState) {
+            case READY -> Health.up();
+            case FAILED -> Health.unknown().withException(warmUpError);
+            case PENDING, WARMING_UP -> Health.unknown();
+        };
+        return builder.withDetail("state", warmUpState)
+                .withDetail("idle", idleDrivers.size())
+                .withDetail("available", permits.availablePermits())
+                .withDetail("waiting", permits.getQueueLength())
+                .build();
+    }
+
+    /**
+     * 借出一个可用的浏览器，使用完毕后必须调用 {@link #release(PooledWebDriver, boolean)} 归还
+     *
+     * @return 浏览器实例
+     */
+    public PooledWebDriver borrow() {
+        if (closed) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "截图浏览器池已关闭");
+        }
+        try {
+            if (!permits.tryAcquire(screenshotConfig.getBorrowTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "等待截图浏览器超时");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "等待截图浏览器被中断");
+        }
+        try {
+            PooledWebDriver pooledWebDriver;
+            while ((pooledWebDriver = idleDrivers.poll()) != null) {
+                if (isHealthy(pooledWebDriver)) {
+                    return pooledWebDriver;
+                }
+                log.warn("截图浏览器已失效，关闭并重建");
+                quietlyQuit(pooledWebDriver);
+            }
+            return new PooledWebDriver(createDriver());
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * 归还浏览器
+     *
+     * @param pooledWebDriver 借出的浏览器
+     * @param broken          使用过程中是否出错，出错的实例直接关闭
+     */
+    public void release(PooledWebDriver pooledWebDriver, boolean broken) {
+        try {
+            pooledWebDriver.pageCount++;
+            if (broken || closed || pooledWebDriver.pageCount >= screenshotConfig.getMaxPagesPerDriver()) {
+                quietlyQuit(pooledWebDriver);
+                return;
+            }
+            idleDrivers.offer(pooledWebDriver);
+        } finally {
+            permits.release();
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        closed = true;
+        PooledWebDriver pooledWebDriver;
+        while ((pooledWebDriver = idleDrivers.poll()) != null) {
+            quietlyQuit(pooledWebDriver);
+        }
+    }
+
+    private boolean isHealthy(PooledWebDriver pooledWebDriver) {
+        try {
+            ((JavascriptExecutor) pooledWebDriver.getDriver()).executeScript("return 1");
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void quietlyQuit(PooledWebDriver pooledWebDriver) {
+        try {
+            pooledWebDriver.getDriver().quit();
+        } catch (Exception e) {
+            log.warn("关闭截图浏览器失败", e);
+        }
+    }
+
+    /**
+     * 准备 ChromeDriver，只需执行一次，优先使用本地路径
+     */
+    private synchronized void setupDriverBinary() {
+        if (driverBinaryReady) {
+            return;
+        }
+        String chromeDriverPath = screenshotConfig.getChromeDriverPath();
+        if (StrUtil.isNotBlank(chromeDriverPath)) {
+            ThrowUtils.throwIf(!FileUtil.exist(chromeDriverPath), ErrorCode.SYSTEM_ERROR, "ChromeDriver 不存在：" + chromeDriverPath);
+            System.setProperty(ChromeDriverService.CHROME_DRIVER_EXE_PROPERTY, chromeDriverPath);
+            driverBinaryReady = true;
+            return;
+        }
+        try {
+            WebDriverManager.chromedriver().config()
+                    .setChromeDriverMirrorUrl(URI.create(screenshotConfig.getChromeDriverMirrorUrl()).toURL());
+            WebDriverManager.chromedriver().setup();
+            driverBinaryReady = true;
+        } catch (Exception e) {
+            log.error("初始化 ChromeDriver 失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "初始化 ChromeDriver 失败");
+        }
+    }
+
+    /**
+     * 创建 Chrome 浏览器驱动
+     */
+    private WebDriver createDriver() {
+        setupDriverBinary();
+        try {
+            // 配置 Chrome 选项
+            ChromeOptions options = new ChromeOptions();
+            if (StrUtil.isNotBlank(screenshotConfig.getChromeBinaryPath())) {
+                options.setBinary(screenshotConfig.getChromeBinaryPath());
+            }
+            // 无头模式
+            options.addArguments("--headless");
+            // 禁用GPU（在某些环境下避免问题）
+            options.addArguments("--disable-gpu");
+            // 禁用沙盒模式（Docker环境需要）
+            options.addArguments("--no-sandbox");
+            // 禁用开发者shm使用
+            options.addArguments("--disable-dev-shm-usage");
+            // 设置窗口大小
+            options.addArguments(String.format("--window-size=%d,%d", screenshotConfig.getWidth(), screenshotConfig.getHeight()));
+            // 禁用扩展
+            options.addArguments("--disable-extensions");
+            // 设置用户代理
+            options.addArguments("--user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36");
+            // 创建驱动
+            WebDriver driver = new ChromeDriver(options);
+            // 设置页面加载超时
+            driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(screenshotConfig.getPageLoadTimeoutSeconds()));
+            // 设置隐式等待
+            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
+            log.info("创建截图浏览器成功");
+            if (warmUpState == WarmUpState.FAILED) {
+                // 预热失败后借出时创建成功，说明浏览器已可用
+                warmUpState = WarmUpState.READY;
+                warmUpError = null;
+            }
+            return driver;
+        } catch (Exception e) {
+            log.error("初始化 Chrome 浏览器失败", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "初始化 Chrome 浏览器失败");
+        }
+    }
+
+    /**
+     * 预热状态
+     */
+    public enum WarmUpState {
+        PENDING, WARMING_UP, READY, FAILED
+    }
+
+    /**
+     * 池中的浏览器实例及其已截图的页面数
+     */
+    public static final class PooledWebDriver {
+
+        private final WebDriver driver;
+
+        private int pageCount;
+
+        private PooledWebDriver(WebDriver driver) {
+            this.driver = driver;
+        }
+
+        public WebDriver getDriver() {
+            return driver;
+        }
+    }
+}
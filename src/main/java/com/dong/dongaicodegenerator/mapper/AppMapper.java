@@ -1,7 +1,11 @@
 package com.dong.dongaicodegenerator.mapper;
 
+import com.dong.dongaicodegenerator.model.dto.AppQueryRequest;
 import com.mybatisflex.core.BaseMapper;
 import com.dong.dongaicodegenerator.model.entity.App;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * 应用 映射层。
@@ -10,4 +14,31 @@ import com.dong.dongaicodegenerator.model.entity.App;
  */
 public interface AppMapper extends BaseMapper<App> {
 
+    /**
+     * 在应用名称和初始 prompt 中全文检索，按相关度降序分页
+     *
+     * @param query    查询请求，使用其中除排序和游标外的筛选条件
+     * @param phrase   布尔模式的全文检索表达式
+     * @param offset   偏移量
+     * @param pageSize 页面大小
+     * @return 应用列表
+     */
+    List<App> selectBySearchText(@Param("query") AppQueryRequest query, @Param("phrase") String phrase,
+                                 @Param("offset") long offset, @Param("pageSize") long pageSize);
+
+    /**
+     * 统计全文检索命中的应用数
+     *
+     * @param query  查询请求
+     * @param phrase 布尔模式的全文检索表达式
+     * @return 命中数
+     */
+    long countBySearchText(@Param("query") AppQueryRequest query, @Param("phrase") String phrase);
+
+    /**
+     * 查询应用表上已创建的全文索引
+     *
+     * @return 全文索引名称列表
+     */
+    List<String> selectFulltextIndexNames();
 }
@@ -50,5 +50,20 @@ public class AppQueryRequest extends PageRequest implements Serializable {
      */
     private Long userId;
 
+    /**
+     * 搜索关键词，在应用名称和初始 prompt 中全文检索并按相关度排序，此时忽略排序字段和游标
+     */
+    private String searchText;
+
+    /**
+     * 游标：上一页最后一条记录的 id，不为空时按 (排序字段, id) 游标分页，不再统计总数
+     */
+    private Long lastId;
+
+    /**
+     * 游标：上一页最后一条记录的排序字段值，指定排序字段时与 lastId 一起使用
+     */
+    private String lastSortValue;
+
     private static final long serialVersionUID = 1L;
 }
@@ -4,12 +4,14 @@ import com.dong.dongaicodegenerator.model.dto.AppAddRequest;
 import com.dong.dongaicodegenerator.model.dto.AppQueryRequest;
 import com.dong.dongaicodegenerator.model.entity.User;
 import com.dong.dongaicodegenerator.model.vo.AppVO;
+import com.mybatisflex.core.paginate.Page;
 import com.mybatisflex.core.query.QueryWrapper;
 import com.mybatisflex.core.service.IService;
 import com.dong.dongaicodegenerator.model.entity.App;
 import jakarta.servlet.http.HttpServletRequest;
 import reactor.core.publisher.Flux;
 
+import java.io.File;
 import java.util.List;
 
 /**
@@ -35,6 +37,16 @@ public interface AppService extends IService<App> {
     QueryWrapper getQueryWrapper(AppQueryRequest appQueryRequest);
 
 
+    /**
+     * 分页获取 AppVO 列表
+     * 传入搜索关键词时全文检索并按相关度排序；未传游标时按页码分页并统计总数；
+     * 传入 lastId 时按 (排序字段, id) 游标分页，不执行 COUNT 和 OFFSET，总数返回 -1
+     *
+     * @param appQueryRequest 应用查询请求
+     * @return 应用视图对象分页列表
+     */
+    Page<AppVO> listAppVOByPage(AppQueryRequest appQueryRequest);
+
     /**
      * 根据 App 列表获取 AppVO 列表。
      *
@@ -61,11 +73,12 @@ public interface AppService extends IService<App> {
     String deployApp(Long appId, User loginUser);
 
     /**
-     * 异步生成应用截图并更新封面
-     * @param
-     * @return
+     * 异步生成应用截图并更新封面，部署内容与已截图的内容一致时直接复用封面
+     * @param appId     应用 ID
+     * @param webUrl    部署后的访问 URL
+     * @param deployDir 部署目录
      */
-    void generateAndUploadScreenshotAsync(Long appId, String webUrl);
+    void generateAndUploadScreenshotAsync(Long appId, String webUrl, File deployDir);
 
     /**
      * 创建应用
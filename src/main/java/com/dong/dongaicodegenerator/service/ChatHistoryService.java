@@ -27,6 +27,16 @@ public interface ChatHistoryService extends IService<ChatHistory> {
      */
     boolean addChatHistory(Long appId, String messageContent, String messageType, Long userId);
 
+    /**
+     * 异步添加聊天记录，记录进入写入队列后由后台线程批量落库
+     *
+     * @param appId          应用ID
+     * @param messageContent 消息内容
+     * @param messageType    消息类型
+     * @param userId         用户ID
+     */
+    void addChatHistoryAsync(Long appId, String messageContent, String messageType, Long userId);
+
     /**
      * 根据应用 ID 删除聊天记录
      *
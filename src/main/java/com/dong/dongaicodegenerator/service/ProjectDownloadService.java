@@ -1,7 +1,6 @@
 package com.dong.dongaicodegenerator.service;
 
-import jakarta.servlet.http.HttpServletResponse;
-
+import java.io.File;
 import java.nio.file.Path;
 
 public interface ProjectDownloadService {
@@ -16,10 +15,18 @@ public interface ProjectDownloadService {
     boolean isPathAllowed(Path projectRoot, Path fullPath);
 
     /**
-     * 下载项目文件 zip
-     * @param projectPath
-     * @param downloadFileName
-     * @param response
+     * 获取项目的 zip 归档，项目内容未变化时直接返回缓存的归档
+     * 归档文件名为项目目录名加内容指纹，可作为 ETag 使用
+     *
+     * @param projectPath 项目路径
+     * @return zip 文件
+     */
+    File getProjectArchive(String projectPath);
+
+    /**
+     * 删除项目的所有归档，包括仍在保留期内的旧归档
+     *
+     * @param projectPath 项目路径
      */
-    void downloadProjectAsZip(String projectPath, String downloadFileName, HttpServletResponse response);
+    void deleteProjectArchives(String projectPath);
 }
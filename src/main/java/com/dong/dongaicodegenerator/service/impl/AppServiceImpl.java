@@ -1,18 +1,26 @@
 package com.dong.dongaicodegenerator.service.impl;
 
 import cn.hutool.core.bean.BeanUtil;
-import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.convert.Convert;
 import cn.hutool.core.util.ObjectUtil;
 import cn.hutool.core.util.RandomUtil;
 import cn.hutool.core.util.StrUtil;
 import com.dong.dongaicodegenerator.ai.AiCodeGenTypeRoutingService;
+import com.dong.dongaicodegenerator.ai.model.message.StreamMessage;
+import com.dong.dongaicodegenerator.config.VueBuildConfig;
 import com.dong.dongaicodegenerator.constant.AppConstant;
 import com.dong.dongaicodegenerator.core.AiCodeGeneratorFacade;
-import com.dong.dongaicodegenerator.core.builder.VueProjectBuilder;
+import com.dong.dongaicodegenerator.core.builder.VueBuildProgressTracker;
+import com.dong.dongaicodegenerator.core.builder.VueBuildScheduler;
+import com.dong.dongaicodegenerator.core.deploy.IncrementalDeployer;
 import com.dong.dongaicodegenerator.core.handler.StreamHandlerExecutor;
 import com.dong.dongaicodegenerator.exception.BusinessException;
 import com.dong.dongaicodegenerator.exception.ErrorCode;
 import com.dong.dongaicodegenerator.exception.ThrowUtils;
+import com.dong.dongaicodegenerator.manager.FeaturedAppManager;
+import com.dong.dongaicodegenerator.manager.ScreenshotCacheManager;
+import com.dong.dongaicodegenerator.manager.StaticResourceManager;
+import com.dong.dongaicodegenerator.manager.UserVOBatchLoader;
 import com.dong.dongaicodegenerator.model.dto.AppAddRequest;
 import com.dong.dongaicodegenerator.model.dto.AppQueryRequest;
 import com.dong.dongaicodegenerator.model.entity.User;
@@ -21,8 +29,11 @@ import com.dong.dongaicodegenerator.model.enums.CodeGenTypeEnum;
 import com.dong.dongaicodegenerator.model.vo.AppVO;
 import com.dong.dongaicodegenerator.model.vo.UserVO;
 import com.dong.dongaicodegenerator.service.ChatHistoryService;
+import com.dong.dongaicodegenerator.service.ProjectDownloadService;
 import com.dong.dongaicodegenerator.service.ScreenshotService;
 import com.dong.dongaicodegenerator.service.UserService;
+import com.dong.dongaicodegenerator.utils.DirectoryHashUtils;
+import com.mybatisflex.core.paginate.Page;
 import com.mybatisflex.core.query.QueryWrapper;
 import com.mybatisflex.spring.service.impl.ServiceImpl;
 import com.dong.dongaicodegenerator.model.entity.App;
@@ -39,6 +50,9 @@ import java.io.File;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -52,6 +66,36 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppService{
 
+    /**
+     * ngram 全文索引的分词长度（MySQL ngram_token_size 默认为 2），更短的关键词无法命中全文索引
+     */
+    private static final int FULLTEXT_MIN_KEYWORD_LENGTH = 2;
+
+    /**
+     * 按名称、按 prompt 检索和关键词搜索使用的全文索引，见 sql/update_app_fulltext_index.sql
+     */
+    private static final String FULLTEXT_INDEX_APP_NAME = "ft_appName";
+
+    private static final String FULLTEXT_INDEX_INIT_PROMPT = "ft_initPrompt";
+
+    private static final String FULLTEXT_INDEX_SEARCH = "ft_appName_initPrompt";
+
+    /**
+     * 应用表上已创建的全文索引，首次查询时从数据库加载，缺失的索引对应的检索条件使用 like
+     */
+    private volatile Set<String> fulltextIndexNames;
+
+    /**
+     * 支持游标分页的排序字段及其类型
+     */
+    private static final Map<String, Class<?>> CURSOR_SORT_FIELDS = Map.of(
+            "id", Long.class,
+            "priority", Integer.class,
+            "createTime", LocalDateTime.class,
+            "editTime", LocalDateTime.class,
+            "updateTime", LocalDateTime.class
+    );
+
     @Resource
     private UserService userService;
     @Resource
@@ -61,11 +105,27 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
     @Resource
     private StreamHandlerExecutor streamHandlerExecutor;
     @Resource
-    private VueProjectBuilder vueProjectBuilder;
+    private VueBuildScheduler vueBuildScheduler;
+    @Resource
+    private VueBuildConfig vueBuildConfig;
+    @Resource
+    private VueBuildProgressTracker vueBuildProgressTracker;
     @Resource
     private ScreenshotService screenshotService;
     @Resource
     private AiCodeGenTypeRoutingService aiCodeGenTypeRoutingService;
+    @Resource
+    private ScreenshotCacheManager screenshotCacheManager;
+    @Resource
+    private StaticResourceManager staticResourceManager;
+    @Resource
+    private IncrementalDeployer incrementalDeployer;
+    @Resource
+    private UserVOBatchLoader userVOBatchLoader;
+    @Resource
+    private FeaturedAppManager featuredAppManager;
+    @Resource
+    private ProjectDownloadService projectDownloadService;
 
     /**
      * 根据 App 实体获取 AppVO。
@@ -82,9 +142,7 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
         BeanUtil.copyProperties(app, appVO);
         Long userId = app.getUserId();
         if (userId != null) {
-            User user = userService.getById(userId);
-            UserVO userVO = userService.getUserVO(user);
-            appVO.setUser(userVO);
+            appVO.setUser(userVOBatchLoader.load(userId));
         }
         return appVO;
     }
@@ -98,6 +156,28 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
      */
     @Override
     public QueryWrapper getQueryWrapper(AppQueryRequest appQueryRequest) {
+        QueryWrapper queryWrapper = getConditionQueryWrapper(appQueryRequest);
+        String sortField = appQueryRequest.getSortField();
+        String sortOrder = appQueryRequest.getSortOrder();
+        // 排序值相同时按 id 排序，翻页结果稳定，也与游标分页的顺序一致
+        if (StrUtil.isBlank(sortField)) {
+            return queryWrapper.orderBy("id", true);
+        }
+        boolean ascend = "ascend".equals(sortOrder);
+        queryWrapper.orderBy(sortField, ascend);
+        if (!"id".equals(sortField)) {
+            queryWrapper.orderBy("id", ascend);
+        }
+        return queryWrapper;
+    }
+
+    /**
+     * 获取只包含筛选条件、不含排序的查询包装器
+     *
+     * @param appQueryRequest 应用查询请求
+     * @return 查询包装器
+     */
+    private QueryWrapper getConditionQueryWrapper(AppQueryRequest appQueryRequest) {
         ThrowUtils.throwIf(ObjectUtil.isNull(appQueryRequest), ErrorCode.PARAMS_ERROR);
         Long id = appQueryRequest.getId();
         String appName = appQueryRequest.getAppName();
@@ -107,19 +187,164 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
         String deployKey = appQueryRequest.getDeployKey();
         Integer priority = appQueryRequest.getPriority();
         Long userId = appQueryRequest.getUserId();
-        String sortField = appQueryRequest.getSortField();
-        String sortOrder = appQueryRequest.getSortOrder();
-
-        return QueryWrapper.create()
+        String searchText = appQueryRequest.getSearchText();
+        // 名称和 prompt 优先使用 ngram 全文索引，索引缺失或关键词过短时退化为 like
+        String appNamePhrase = hasFulltextIndex(FULLTEXT_INDEX_APP_NAME) ? toFulltextPhrase(appName) : null;
+        String initPromptPhrase = hasFulltextIndex(FULLTEXT_INDEX_INIT_PROMPT) ? toFulltextPhrase(initPrompt) : null;
+        QueryWrapper queryWrapper = QueryWrapper.create()
                 .eq(App::getId, id, ObjectUtil.isNotNull(id))
-                .like(App::getAppName, appName, appName != null)
+                .like(App::getAppName, appName, appName != null && appNamePhrase == null)
                 .like(App::getCover, cover, cover != null)
-                .like(App::getInitPrompt, initPrompt, initPrompt != null)
+                .like(App::getInitPrompt, initPrompt, initPrompt != null && initPromptPhrase == null)
                 .eq(App::getCodeGenType, codeGenType, codeGenType != null)
                 .eq(App::getDeployKey, deployKey, deployKey != null)
                 .eq(App::getPriority, priority, ObjectUtil.isNotNull(priority))
-                .eq(App::getUserId, userId, ObjectUtil.isNotNull(userId))
-                .orderBy(sortField, "ascend".equals(sortOrder));
+                .eq(App::getUserId, userId, ObjectUtil.isNotNull(userId));
+        if (appNamePhrase != null) {
+            queryWrapper.and("match(appName) against(? in boolean mode)", appNamePhrase);
+        }
+        if (initPromptPhrase != null) {
+            queryWrapper.and("match(initPrompt) against(? in boolean mode)", initPromptPhrase);
+        }
+        // 全文检索走 listAppVOByPage 的单独查询，这里只处理无法使用全文索引的搜索关键词
+        if (StrUtil.isNotBlank(searchText) && toSearchPhrase(searchText) == null) {
+            String keyword = searchText.trim();
+            queryWrapper.and(wrapper -> wrapper.like(App::getAppName, keyword)
+                    .or(inner -> inner.like(App::getInitPrompt, keyword)));
+        }
+        return queryWrapper;
+    }
+
+    /**
+     * 把搜索关键词转换为名称和 prompt 联合全文检索的短语表达式
+     *
+     * @param searchText 搜索关键词
+     * @return 短语表达式，联合全文索引缺失或关键词无法使用全文索引时返回 null
+     */
+    private String toSearchPhrase(String searchText) {
+        return hasFulltextIndex(FULLTEXT_INDEX_SEARCH) ? toFulltextPhrase(searchText) : null;
+    }
+
+    /**
+     * 判断应用表上是否已创建指定的全文索引
+     * 索引列表只在首次成功查询后缓存，新建索引后需要重启应用才会使用
+     *
+     * @param indexName 索引名称
+     * @return 是否已创建
+     */
+    private boolean hasFulltextIndex(String indexName) {
+        Set<String> indexNames = fulltextIndexNames;
+        if (indexNames == null) {
+            try {
+                indexNames = Set.copyOf(this.mapper.selectFulltextIndexNames());
+            } catch (Exception e) {
+                log.error("查询应用表全文索引失败，本次检索使用 like", e);
+                return false;
+            }
+            List<String> missing = new ArrayList<>();
+            for (String name : List.of(FULLTEXT_INDEX_APP_NAME, FULLTEXT_INDEX_INIT_PROMPT, FULLTEXT_INDEX_SEARCH)) {
+                if (!indexNames.contains(name)) {
+                    missing.add(name);
+                }
+            }
+            if (!missing.isEmpty()) {
+                log.warn("应用表缺少全文索引 {}，对应的检索条件使用 like，请执行 sql/update_app_fulltext_index.sql", missing);
+            }
+            fulltextIndexNames = indexNames;
+        }
+        return indexNames.contains(indexName);
+    }
+
+    /**
+     * 把关键词转换为布尔模式的短语表达式
+     * ngram 分词下短语要求各分词连续出现，效果接近 like '%关键词%'，但可以使用全文索引
+     *
+     * @param keyword 关键词
+     * @return 短语表达式，关键词为空或短于分词长度时返回 null
+     */
+    static String toFulltextPhrase(String keyword) {
+        if (keyword == null) {
+            return null;
+        }
+        // 双引号会提前结束短语，其余布尔运算符在短语内不生效
+        String text = keyword.replace('"', ' ').trim();
+        if (text.length() < FULLTEXT_MIN_KEYWORD_LENGTH) {
+            return null;
+        }
+        return "\"" + text + "\"";
+    }
+
+    /**
+     * 分页获取 AppVO 列表
+     * 传入搜索关键词时全文检索并按相关度排序；未传游标时按页码分页并统计总数；
+     * 传入 lastId 时按 (排序字段, id) 游标分页，不执行 COUNT 和 OFFSET，总数返回 -1
+     *
+     * @param appQueryRequest 应用查询请求
+     * @return 应用视图对象分页列表
+     */
+    @Override
+    public Page<AppVO> listAppVOByPage(AppQueryRequest appQueryRequest) {
+        ThrowUtils.throwIf(ObjectUtil.isNull(appQueryRequest), ErrorCode.PARAMS_ERROR);
+        long pageNum = appQueryRequest.getPageNum();
+        long pageSize = appQueryRequest.getPageSize();
+        ThrowUtils.throwIf(pageSize <= 0, ErrorCode.PARAMS_ERROR, "页面大小不合法");
+        String searchPhrase = toSearchPhrase(appQueryRequest.getSearchText());
+        if (searchPhrase != null) {
+            // 全文检索按相关度排序分页
+            long total = this.mapper.countBySearchText(appQueryRequest, searchPhrase);
+            List<App> appList = total == 0 ? new ArrayList<>()
+                    : this.mapper.selectBySearchText(appQueryRequest, searchPhrase, (pageNum - 1) * pageSize, pageSize);
+            Page<AppVO> appVOPage = new Page<>(pageNum, pageSize, total);
+            appVOPage.setRecords(getAppVOList(appList));
+            return appVOPage;
+        }
+        if (appQueryRequest.getLastId() == null) {
+            Page<App> page = this.page(Page.of(pageNum, pageSize), getQueryWrapper(appQueryRequest));
+            Page<AppVO> appVOPage = new Page<>(pageNum, pageSize, page.getTotalRow());
+            appVOPage.setRecords(getAppVOList(page.getRecords()));
+            return appVOPage;
+        }
+        List<App> appList = this.list(getCursorQueryWrapper(appQueryRequest).limit(pageSize));
+        Page<AppVO> appVOPage = new Page<>(pageNum, pageSize, -1);
+        appVOPage.setRecords(getAppVOList(appList));
+        return appVOPage;
+    }
+
+    /**
+     * 获取游标分页的查询包装器：只查询 (排序字段, id) 严格位于游标之后的记录，可以走 (排序字段, id) 索引
+     *
+     * @param appQueryRequest 应用查询请求，lastId 不为空
+     * @return 查询包装器
+     */
+    private QueryWrapper getCursorQueryWrapper(AppQueryRequest appQueryRequest) {
+        String sortField = StrUtil.blankToDefault(appQueryRequest.getSortField(), "id");
+        Class<?> sortFieldType = CURSOR_SORT_FIELDS.get(sortField);
+        ThrowUtils.throwIf(sortFieldType == null, ErrorCode.PARAMS_ERROR, "该排序字段不支持游标分页");
+        // 未指定排序字段时与 getQueryWrapper 一致，按 id 升序
+        boolean ascend = StrUtil.isBlank(appQueryRequest.getSortField()) || "ascend".equals(appQueryRequest.getSortOrder());
+        Long lastId = appQueryRequest.getLastId();
+        QueryWrapper queryWrapper = getConditionQueryWrapper(appQueryRequest);
+        if ("id".equals(sortField)) {
+            if (ascend) {
+                queryWrapper.gt("id", lastId);
+            } else {
+                queryWrapper.lt("id", lastId);
+            }
+            return queryWrapper.orderBy("id", ascend);
+        }
+        Object lastSortValue = Convert.convertQuietly(sortFieldType, appQueryRequest.getLastSortValue());
+        ThrowUtils.throwIf(lastSortValue == null, ErrorCode.PARAMS_ERROR, "游标排序字段值不合法");
+        // 排序字段越过游标值，或排序字段相等且 id 越过游标 id
+        queryWrapper.and(wrapper -> {
+            if (ascend) {
+                wrapper.gt(sortField, lastSortValue)
+                        .or(inner -> inner.eq(sortField, lastSortValue).gt("id", lastId));
+            } else {
+                wrapper.lt(sortField, lastSortValue)
+                        .or(inner -> inner.eq(sortField, lastSortValue).lt("id", lastId));
+            }
+        });
+        return queryWrapper.orderBy(sortField, ascend).orderBy("id", ascend);
     }
 
 
@@ -140,9 +365,7 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
                 return app.getUserId();
             }
         }).collect(Collectors.toSet());
-        List<User> users = userService.listByIds(userIdsSet);
-        Map<Long, UserVO> userVOMap = users.stream()
-                .collect(Collectors.toMap(User::getId, userService::getUserVO));
+        Map<Long, UserVO> userVOMap = userVOBatchLoader.loadAll(userIdsSet);
         return appList.stream().map(new Function<App, AppVO>() {
             @Override
             public AppVO apply(App app) {
@@ -180,7 +403,7 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
         // 调用 AI 之前先保存用户消息
         chatHistoryService.addChatHistory(appId, prompt, ChatHistoryMessageTypeEnum.USER.getValue(), loginUser.getId());
         // 调用 AI 进行代码生成，并以流式方式返回结果
-        Flux<String> contentFlux = aiCodeGeneratorFacade.generateCodeAndSaveWithStream(prompt, codeGenTypeEnum, appId);
+        Flux<StreamMessage> contentFlux = aiCodeGeneratorFacade.generateCodeAndSaveWithStream(prompt, codeGenTypeEnum, appId);
         // 收集 AI 的完整相应内容，并且在流处理完成后保存 AI 回复的消息
         return streamHandlerExecutor.doExecute(contentFlux, chatHistoryService
                 , appId, loginUser, codeGenTypeEnum);
@@ -216,21 +439,22 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
         // 如果是 Vue 工程项目需要进行特殊的构建处理
         CodeGenTypeEnum codeGenTypeEnum = CodeGenTypeEnum.getEnumByValue(codeGenType);
         if (codeGenTypeEnum == CodeGenTypeEnum.VUE_PROJECT) {
-            boolean isBuildCompleted = vueProjectBuilder.buildProject(sourceDirPath);
+            boolean isBuildCompleted = waitForDeployBuild(sourceDirPath);
             ThrowUtils.throwIf(!isBuildCompleted, ErrorCode.SYSTEM_ERROR, "Vue 项目构建失败，无法部署");
             File distDir = new File(sourceDirPath, "dist");
             ThrowUtils.throwIf(!distDir.exists() || !distDir.isDirectory(), ErrorCode.SYSTEM_ERROR, "Vue 项目构建完成，但 dist 目录不存在，无法部署");
             sourceFile = distDir;
             log.info("Vue 项目构建完成，准备部署 dist 目录，路径：" + distDir.getAbsolutePath());
+            // dist 目录可能已被重新构建，释放预览缓存中的旧内容
+            staticResourceManager.invalidateDirectory(distDir.toPath());
         }
 
-        String deployDirPath = AppConstant.CODE_DEPLOY_ROOT_DIR + File.separator + deployKey;
-        try {
-            // 从code_output目录复制文件到code_deploy目录
-            File deployFile = new File(deployDirPath);
-            FileUtil.copyContent(sourceFile, deployFile, true);
-        } catch (Exception e) {
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "应用部署失败，发生异常：" + e.getMessage());
+        // 从code_output目录增量同步到code_deploy目录，准备完成后原子切换
+        long copyStartNanos = System.nanoTime();
+        File deployFile = incrementalDeployer.deploy(sourceFile, deployKey);
+        if (codeGenTypeEnum == CodeGenTypeEnum.VUE_PROJECT) {
+            vueBuildProgressTracker.recordPhase(VueBuildProgressTracker.BuildPhase.COPY,
+                    System.nanoTime() - copyStartNanos, true);
         }
         App updatedApp = new App();
         updatedApp.setId(appId);
@@ -239,22 +463,57 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
         boolean updated = this.updateById(updatedApp);
         ThrowUtils.throwIf(!updated, ErrorCode.OPERATION_ERROR, "应用部署信息更新失败");
         String deployUrl =  String.format("%s/%s/", AppConstant.CODE_DEPLOY_HOST, deployKey);
-        generateAndUploadScreenshotAsync(appId, deployUrl);
+        generateAndUploadScreenshotAsync(appId, deployUrl, deployFile);
         return deployUrl;
     }
 
+    /**
+     * 以部署优先级提交 Vue 项目构建并等待结果，生成后已在进行的构建会被直接复用
+     *
+     * @param projectPath 项目根目录路径
+     * @return 是否构建成功
+     */
+    private boolean waitForDeployBuild(String projectPath) {
+        try {
+            return vueBuildScheduler.submit(projectPath, VueBuildScheduler.BuildPriority.DEPLOY)
+                    .get(vueBuildConfig.getDeployWaitSeconds(), TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | TimeoutException e) {
+            log.error("等待 Vue 项目构建失败: {}", projectPath, e);
+            return false;
+        }
+    }
+
     /**
      * 异步生成应用截图并更新封面
+     * 按部署目录的内容哈希查找封面缓存，命中时跳过截图和上传
      *
-     * @param appId  应用 ID
-     * @param webUrl 部署后的访问 URL
+     * @param appId     应用 ID
+     * @param webUrl    部署后的访问 URL
+     * @param deployDir 部署目录
      */
     @Override
-    public void generateAndUploadScreenshotAsync(Long appId, String webUrl) {
+    public void generateAndUploadScreenshotAsync(Long appId, String webUrl, File deployDir) {
         Thread.startVirtualThread(new Runnable() {
             @Override
             public void run() {
-                String url = screenshotService.generateAndUploadScreenshot(webUrl);
+                String contentHash = null;
+                try {
+                    contentHash = DirectoryHashUtils.sha256Hex(deployDir);
+                } catch (Exception e) {
+                    log.warn("计算部署目录哈希失败，直接截图，appId={}", appId, e);
+                }
+                String url = contentHash == null ? null : screenshotCacheManager.getCover(contentHash);
+                if (StrUtil.isNotBlank(url)) {
+                    log.info("部署内容未变化，复用已有封面，appId={}，contentHash={}", appId, contentHash);
+                } else {
+                    url = screenshotService.generateAndUploadScreenshot(webUrl);
+                    if (contentHash != null && StrUtil.isNotBlank(url)) {
+                        screenshotCacheManager.putCover(contentHash, url);
+                    }
+                }
                 App app = new App();
                 app.setId(appId);
                 app.setCover(url);
@@ -303,12 +562,38 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
         if (appId <= 0) {
             return false;
         }
+        // 取消该应用排队或进行中的 Vue 项目构建
+        vueBuildScheduler.cancel(AppConstant.CODE_OUTPUT_ROOT_DIR + File.separator
+                + CodeGenTypeEnum.VUE_PROJECT.getValue() + "_" + appId);
         try {
             chatHistoryService.deleteByAppId(appId);
         } catch (Exception e) {
             log.error("删除应用关联的聊天记录失败，应用 ID：" + appId, e);
             throw new BusinessException(ErrorCode.OPERATION_ERROR, "删除应用关联的聊天记录失败");
         }
-        return super.removeById(id);
+        boolean removed = super.removeById(id);
+        if (removed && featuredAppManager.mayContain(appId)) {
+            featuredAppManager.invalidate();
+        }
+        if (removed) {
+            // 删除应用各生成类型的下载归档，包括仍在保留期内的旧归档
+            for (CodeGenTypeEnum codeGenTypeEnum : CodeGenTypeEnum.values()) {
+                projectDownloadService.deleteProjectArchives(AppConstant.CODE_OUTPUT_ROOT_DIR + File.separator
+                        + codeGenTypeEnum.getValue() + "_" + appId);
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * 更新应用后，涉及精选应用（修改了优先级或应用在精选列表中）时使精选应用快照失效
+     */
+    @Override
+    public boolean updateById(App entity, boolean ignoreNulls) {
+        boolean updated = super.updateById(entity, ignoreNulls);
+        if (updated && (entity.getPriority() != null || featuredAppManager.mayContain(entity.getId()))) {
+            featuredAppManager.invalidate();
+        }
+        return updated;
     }
 }
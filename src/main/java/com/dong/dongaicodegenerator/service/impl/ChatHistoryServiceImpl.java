@@ -6,11 +6,14 @@ import cn.hutool.core.util.StrUtil;
 import com.dong.dongaicodegenerator.constant.UserConstant;
 import com.dong.dongaicodegenerator.exception.ErrorCode;
 import com.dong.dongaicodegenerator.exception.ThrowUtils;
+import com.dong.dongaicodegenerator.manager.ChatHistoryWriteBehindManager;
 import com.dong.dongaicodegenerator.model.dto.ChatHistoryQueryRequest;
 import com.dong.dongaicodegenerator.model.entity.App;
 import com.dong.dongaicodegenerator.model.entity.User;
 import com.dong.dongaicodegenerator.model.enums.ChatHistoryMessageTypeEnum;
 import com.dong.dongaicodegenerator.service.AppService;
+import com.mybatisflex.core.keygen.KeyGeneratorFactory;
+import com.mybatisflex.core.keygen.KeyGenerators;
 import com.mybatisflex.core.paginate.Page;
 import com.mybatisflex.core.query.QueryWrapper;
 import com.mybatisflex.spring.service.impl.ServiceImpl;
@@ -41,21 +44,43 @@ public class ChatHistoryServiceImpl extends ServiceImpl<ChatHistoryMapper, ChatH
     @Lazy
     private AppService appService;
 
+    @Resource
+    private ChatHistoryWriteBehindManager chatHistoryWriteBehindManager;
+
     @Override
     public boolean addChatHistory(Long appId, String messageContent, String messageType, Long userId) {
+        ChatHistory chatHistory = buildChatHistory(appId, messageContent, messageType, userId);
+        return this.save(chatHistory);
+    }
+
+    @Override
+    public void addChatHistoryAsync(Long appId, String messageContent, String messageType, Long userId) {
+        ChatHistory chatHistory = buildChatHistory(appId, messageContent, messageType, userId);
+        // 批量插入不会使用数据库默认值，主键和时间在入队时确定，保证记录顺序与产生顺序一致
+        LocalDateTime now = LocalDateTime.now();
+        chatHistory.setId((Long) KeyGeneratorFactory.getKeyGenerator(KeyGenerators.snowFlakeId).generate(chatHistory, "id"));
+        chatHistory.setCreateTime(now);
+        chatHistory.setUpdateTime(now);
+        chatHistory.setIsDelete(0);
+        chatHistoryWriteBehindManager.submit(chatHistory);
+    }
+
+    /**
+     * 校验参数并构建对话记录
+     */
+    private ChatHistory buildChatHistory(Long appId, String messageContent, String messageType, Long userId) {
         ThrowUtils.throwIf(appId == null || appId <= 0, ErrorCode.PARAMS_ERROR, "应用 ID不能为空");
         ThrowUtils.throwIf(StrUtil.isBlank(messageContent), ErrorCode.PARAMS_ERROR, "消息内容不能为空");
         ThrowUtils.throwIf(StrUtil.isBlank(messageType), ErrorCode.PARAMS_ERROR, "消息类型不能为空");
         ThrowUtils.throwIf(userId == null || userId <= 0, ErrorCode.PARAMS_ERROR, "用户 ID 不能为空");
         ChatHistoryMessageTypeEnum messageTypeEnum = ChatHistoryMessageTypeEnum.getEnumByValue(messageType);
         ThrowUtils.throwIf(ObjectUtil.isNull(messageTypeEnum), ErrorCode.PARAMS_ERROR, "消息类型不合法");
-        ChatHistory chatHistory = ChatHistory.builder()
+        return ChatHistory.builder()
                 .appId(appId)
                 .message(messageContent)
                 .messageType(messageType)
                 .userId(userId)
                 .build();
-        return this.save(chatHistory);
     }
 
     @Override
@@ -1,44 +1,57 @@
 package com.dong.dongaicodegenerator.service.impl;
 
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.RandomUtil;
 import cn.hutool.core.util.StrUtil;
-import cn.hutool.core.util.ZipUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import com.dong.dongaicodegenerator.constant.AppConstant;
 import com.dong.dongaicodegenerator.exception.BusinessException;
 import com.dong.dongaicodegenerator.exception.ErrorCode;
 import com.dong.dongaicodegenerator.exception.ThrowUtils;
 import com.dong.dongaicodegenerator.service.ProjectDownloadService;
-import jakarta.servlet.http.HttpServletResponse;
+import com.dong.dongaicodegenerator.utils.PathIgnoreMatcher;
+import com.dong.dongaicodegenerator.utils.ZipArchiveUtils;
+import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
-import java.io.FileFilter;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.Set;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 public class ProjectDownloadServiceImpl implements ProjectDownloadService {
 
-    public static final Set<String> IGNORED_NAMES = Set.of(
-            "node_modules",
-            ".git",
-            "dist",
-            "build",
-            ".DS_store",
-            ".env",
-            "target",
-            ".mvn",
-            ".idea",
-            ".vscode"
-    );
+    /**
+     * 旧归档在最后一次返回给下载请求后保留的时间，供已开始的下载和断点续传继续读取
+     */
+    private static final Duration STALE_ARCHIVE_GRACE_PERIOD = Duration.ofHours(1);
 
-    public static final Set<String> IGNORED_EXTENSIONS = Set.of(
-            ".log",
-            ".tmp",
-            ".temp",
-            ".cache"
-    );
+    /**
+     * 打包锁的分段数
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * 按项目路径分段的打包锁，同一项目的打包串行执行，后到的请求等待前一个打包完成后直接命中缓存；
+     * 锁的数量固定，不随项目数增长
+     */
+    private final ReentrantLock[] archiveLocks = Stream.generate(ReentrantLock::new)
+            .limit(LOCK_STRIPES)
+            .toArray(ReentrantLock[]::new);
+
+    @Resource
+    private PathIgnoreMatcher projectIgnoreMatcher;
 
     /**
      * 检查给定的路径是否在允许下载的范围内。
@@ -49,52 +62,113 @@ public class ProjectDownloadServiceImpl implements ProjectDownloadService {
      */
     @Override
     public boolean isPathAllowed(Path projectRoot, Path fullPath) {
-        Path relativized = projectRoot.relativize(fullPath);
-        for (Path part : relativized) {
-            String partName = part.toString();
-            if (IGNORED_NAMES.contains(partName)) {
-                return false;
-            }
-            if (IGNORED_EXTENSIONS.stream().anyMatch(partName::endsWith)) {
-                return false;
-            }
-        }
-        return true;
+        return !projectIgnoreMatcher.isIgnored(projectRoot.relativize(fullPath));
     }
 
     /**
-     * 下载项目文件 zip
-     * @param projectPath
-     * @param downloadFileName
-     * @param response
+     * 获取项目的 zip 归档
+     * 按忽略规则遍历项目（node_modules 等目录整体跳过），以所有允许下载的文件的路径、大小和修改时间计算指纹，指纹未变化时直接返回缓存的归档；
+     * 否则并行压缩生成新归档，先写临时文件再原子重命名。
+     * 每次返回归档时刷新其修改时间，该项目的旧归档在最后一次返回超过保留时间后才删除，
+     * 避免删除刚交给下载请求、尚未打开或正在断点续传的归档
+     *
+     * @param projectPath 项目路径
+     * @return zip 文件
      */
     @Override
-    public void downloadProjectAsZip(String projectPath, String downloadFileName
-            , HttpServletResponse response) {
+    public File getProjectArchive(String projectPath) {
         ThrowUtils.throwIf(StrUtil.isBlank(projectPath), ErrorCode.PARAMS_ERROR
                 , "项目路径不可为空");
-        ThrowUtils.throwIf(StrUtil.isBlank(downloadFileName), ErrorCode.PARAMS_ERROR, "文件名称为空");
         File projectDir = new File(projectPath);
         ThrowUtils.throwIf(!projectDir.exists(), ErrorCode.OPERATION_ERROR, "项目目录不存在");
         ThrowUtils.throwIf(!projectDir.isDirectory(), ErrorCode.OPERATION_ERROR);
-        log.info("下载项目文件 {} -> {}.zip", projectPath, downloadFileName);
-        response.setStatus(HttpServletResponse.SC_OK);
-        response.setContentType("application/zip");
-        response.addHeader("Content-Disposition",
-                String.format("attachment; filename=\"%s.zip\"", downloadFileName));
-        FileFilter fileFilter = new FileFilter() {
-            @Override
-            public boolean accept(File projectFile) {
-                return isPathAllowed(projectDir.toPath(), projectFile.toPath());
-            }
-        };
+        Path projectRoot = projectDir.toPath();
+        ReentrantLock lock = archiveLockOf(projectDir);
+        lock.lock();
         try {
-            ZipUtil.zip(response.getOutputStream(), StandardCharsets.UTF_8
-                    , false, fileFilter, projectDir);
-            log.info("项目打包下载完成: {}", downloadFileName);
-        } catch (Exception e) {
-            log.error("项目打包下载异常", e);
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "项目打包下载失败");
+            List<Path> files = projectIgnoreMatcher.listFiles(projectRoot);
+            String archivePrefix = projectDir.getName() + "-";
+            Path cacheDir = Paths.get(AppConstant.CODE_DOWNLOAD_CACHE_ROOT_DIR);
+            Path archive = cacheDir.resolve(archivePrefix + computeFingerprint(projectRoot, files) + ".zip");
+            if (Files.isRegularFile(archive)) {
+                log.info("项目未变化，使用缓存的归档: {}", archive.getFileName());
+                Files.setLastModifiedTime(archive, FileTime.fromMillis(System.currentTimeMillis()));
+                return archive.toFile();
+            }
+            long start = System.currentTimeMillis();
+            Files.createDirectories(cacheDir);
+            Path tempArchive = cacheDir.resolve("." + archive.getFileName() + "." + RandomUtil.randomString(6) + ".part");
+            try {
+                ZipArchiveUtils.createArchive(projectRoot, files, tempArchive);
+                Files.move(tempArchive, archive, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(tempArchive);
+            }
+            deleteStaleArchives(cacheDir, archivePrefix, archive);
+            log.info("项目打包完成: {}，{} 个文件，耗时 {} ms", archive.getFileName(), files.size(),
+                    System.currentTimeMillis() - start);
+            return archive.toFile();
+        } catch (IOException e) {
+            log.error("项目打包异常", e);
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "项目打包失败");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 计算项目指纹：各文件的相对路径、大小和修改时间的 SHA-256，只读取文件属性
+     */
+    private String computeFingerprint(Path projectRoot, List<Path> files) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        for (Path file : files) {
+            BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+            builder.append(projectRoot.relativize(file)).append('\0')
+                    .append(attrs.size()).append('\0')
+                    .append(attrs.lastModifiedTime().toMillis()).append('\n');
+        }
+        return DigestUtil.sha256Hex(builder.toString());
+    }
+
+    /**
+     * 删除项目的所有归档，应用删除时调用
+     *
+     * @param projectPath 项目路径
+     */
+    @Override
+    public void deleteProjectArchives(String projectPath) {
+        Path cacheDir = Paths.get(AppConstant.CODE_DOWNLOAD_CACHE_ROOT_DIR);
+        if (StrUtil.isBlank(projectPath) || !Files.isDirectory(cacheDir)) {
+            return;
+        }
+        File projectDir = new File(projectPath);
+        String archivePrefix = projectDir.getName() + "-";
+        ReentrantLock lock = archiveLockOf(projectDir);
+        lock.lock();
+        try (Stream<Path> stream = Files.list(cacheDir)) {
+            stream.filter(path -> path.getFileName().toString().startsWith(archivePrefix))
+                    .forEach(FileUtil::del);
+        } catch (IOException e) {
+            log.error("删除项目归档失败: {}", projectPath, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReentrantLock archiveLockOf(File projectDir) {
+        return archiveLocks[Math.floorMod(projectDir.getAbsolutePath().hashCode(), LOCK_STRIPES)];
+    }
+
+    /**
+     * 删除项目的旧归档，最后一次返回给下载请求未超过保留时间的旧归档暂不删除
+     */
+    private void deleteStaleArchives(Path cacheDir, String archivePrefix, Path currentArchive) throws IOException {
+        long expireBefore = System.currentTimeMillis() - STALE_ARCHIVE_GRACE_PERIOD.toMillis();
+        try (Stream<Path> stream = Files.list(cacheDir)) {
+            stream.filter(path -> path.getFileName().toString().startsWith(archivePrefix))
+                    .filter(path -> !path.equals(currentArchive))
+                    .filter(path -> FileUtil.lastModifiedTime(path.toFile()).getTime() < expireBefore)
+                    .forEach(FileUtil::del);
         }
     }
 }
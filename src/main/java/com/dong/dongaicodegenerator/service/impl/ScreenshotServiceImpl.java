@@ -23,11 +23,14 @@ public class ScreenshotServiceImpl implements ScreenshotService {
     @Resource
     private CosManager cosManager;
 
+    @Resource
+    private WebScreenshotUtils webScreenshotUtils;
+
     @Override
     public String generateAndUploadScreenshot(String webUrl) {
         ThrowUtils.throwIf(StrUtil.isBlank(webUrl), ErrorCode.PARAMS_ERROR, "网页 URL 不能为空");
         log.info("开始生成网页截图，URL: {}", webUrl);
-        String compressedImagePath = WebScreenshotUtils.saveWebPageScreenshot(webUrl);
+        String compressedImagePath = webScreenshotUtils.saveWebPageScreenshot(webUrl);
         ThrowUtils.throwIf(StrUtil.isBlank(compressedImagePath), ErrorCode.OPERATION_ERROR
                 , "生成网页截图失败");
         log.info("网页截图生成成功，路径: {}", compressedImagePath);
@@ -8,6 +8,8 @@ import com.dong.dongaicodegenerator.constant.UserConstant;
 import com.dong.dongaicodegenerator.exception.BusinessException;
 import com.dong.dongaicodegenerator.exception.ErrorCode;
 import com.dong.dongaicodegenerator.exception.ThrowUtils;
+import com.dong.dongaicodegenerator.manager.LoginUserCacheManager;
+import com.dong.dongaicodegenerator.manager.UserVOBatchLoader;
 import com.dong.dongaicodegenerator.model.dto.UserQueryRequest;
 import com.dong.dongaicodegenerator.model.enums.UserRoleEnum;
 import com.dong.dongaicodegenerator.model.vo.LoginUserVO;
@@ -17,11 +19,13 @@ import com.mybatisflex.spring.service.impl.ServiceImpl;
 import com.dong.dongaicodegenerator.model.entity.User;
 import com.dong.dongaicodegenerator.mapper.UserMapper;
 import com.dong.dongaicodegenerator.service.UserService;
+import jakarta.annotation.Resource;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.DigestUtils;
 
+import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
@@ -38,6 +42,17 @@ import static com.dong.dongaicodegenerator.constant.UserConstant.USER_LOGIN_STAT
 @Service
 public class UserServiceImpl extends ServiceImpl<UserMapper, User>  implements UserService {
 
+    /**
+     * 当前请求中已查询到的登录用户
+     */
+    private static final String LOGIN_USER_REQUEST_ATTR = UserServiceImpl.class.getName() + ".LOGIN_USER";
+
+    @Resource
+    private LoginUserCacheManager loginUserCacheManager;
+
+    @Resource
+    private UserVOBatchLoader userVOBatchLoader;
+
     @Override
     public long userRegister(String userAccount, String userPassword, String checkPassword) {
         // 检验参数
@@ -122,12 +137,45 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>  implements U
         if (ObjectUtil.isNull(user)) {
             throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR, "用户未登录");
         }
+        // 同一请求内多次调用（权限校验切面、接口方法）只查询一次
+        User requestUser = (User) request.getAttribute(LOGIN_USER_REQUEST_ATTR);
+        if (requestUser != null) {
+            return requestUser;
+        }
         Long userId = user.getId();
-        user = this.getById(userId);
+        user = loginUserCacheManager.getUser(userId, this::getById);
         ThrowUtils.throwIf(ObjectUtil.isNull(user), ErrorCode.NOT_LOGIN_ERROR, "用户未登录");
+        request.setAttribute(LOGIN_USER_REQUEST_ATTR, user);
         return user;
     }
 
+    /**
+     * 修改用户后使登录用户缓存失效，角色等变更在下一次请求时生效
+     */
+    @Override
+    public boolean updateById(User entity, boolean ignoreNulls) {
+        boolean updated = super.updateById(entity, ignoreNulls);
+        if (updated) {
+            loginUserCacheManager.invalidate(entity.getId());
+            userVOBatchLoader.invalidate(entity.getId());
+        }
+        return updated;
+    }
+
+    /**
+     * 删除用户后使登录用户缓存失效，已登录的会话随之失效
+     */
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean removed = super.removeById(id);
+        if (removed) {
+            Long userId = Long.valueOf(id.toString());
+            loginUserCacheManager.invalidate(userId);
+            userVOBatchLoader.invalidate(userId);
+        }
+        return removed;
+    }
+
     @Override
     public boolean userLogout(HttpServletRequest request) {
         // 判断当前用户是否登录
@@ -0,0 +1,79 @@
+package com.dong.dongaicodegenerator.utils;
+
+import cn.hutool.core.util.HexUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import com.dong.dongaicodegenerator.exception.BusinessException;
+import com.dong.dongaicodegenerator.exception.ErrorCode;
+import com.dong.dongaicodegenerator.exception.ThrowUtils;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * 目录内容哈希工具类
+ * 以 Merkle 树的方式计算目录的 SHA-256：文件节点为文件内容的哈希，
+ * 目录节点为按名称排序后各子节点（类型、名称、哈希）的哈希。
+ * 只要目录结构与文件内容完全一致，哈希就相同，与文件修改时间无关
+ */
+public class DirectoryHashUtils {
+
+    private static final byte FILE_NODE = 'f';
+
+    private static final byte DIRECTORY_NODE = 'd';
+
+    private DirectoryHashUtils() {
+    }
+
+    /**
+     * 计算目录内容的哈希
+     *
+     * @param dir 目录
+     * @return 十六进制的 SHA-256
+     */
+    public static String sha256Hex(File dir) {
+        return sha256Hex(dir, file -> true);
+    }
+
+    /**
+     * 计算目录内容的哈希，只统计过滤器接受的文件和目录，被排除的目录不再向下遍历
+     *
+     * @param dir    目录
+     * @param filter 文件过滤器
+     * @return 十六进制的 SHA-256
+     */
+    public static String sha256Hex(File dir, FileFilter filter) {
+        ThrowUtils.throwIf(dir == null || !dir.isDirectory(), ErrorCode.PARAMS_ERROR, "目录不存在");
+        return HexUtil.encodeHexStr(hashDirectory(dir, filter));
+    }
+
+    private static byte[] hashDirectory(File dir, FileFilter filter) {
+        File[] children = dir.listFiles(filter);
+        if (children == null) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "读取目录失败：" + dir.getAbsolutePath());
+        }
+        Arrays.sort(children, Comparator.comparing(File::getName));
+        MessageDigest digest = newSha256Digest();
+        for (File child : children) {
+            boolean isDirectory = child.isDirectory();
+            digest.update(isDirectory ? DIRECTORY_NODE : FILE_NODE);
+            digest.update(child.getName().getBytes(StandardCharsets.UTF_8));
+            // 名称与哈希之间加分隔符，避免不同的名称和哈希拼接出相同的字节
+            digest.update((byte) 0);
+            digest.update(isDirectory ? hashDirectory(child, filter) : DigestUtil.sha256(child));
+        }
+        return digest.digest();
+    }
+
+    private static MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "不支持 SHA-256 算法");
+        }
+    }
+}
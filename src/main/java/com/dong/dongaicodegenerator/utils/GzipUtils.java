@@ -0,0 +1,91 @@
+package com.dong.dongaicodegenerator.utils;
+
+import cn.hutool.core.util.RandomUtil;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 静态资源 gzip 预压缩工具类
+ * 文本类资源提前压缩为同名的 .gz 文件，请求时直接发送压缩结果，不再逐次压缩
+ */
+public class GzipUtils {
+
+    /**
+     * 预压缩文件的后缀
+     */
+    public static final String GZIP_SUFFIX = ".gz";
+
+    /**
+     * 小于该大小（字节）的文件压缩收益不明显，不压缩
+     */
+    public static final long MIN_COMPRESS_SIZE = 1024;
+
+    private static final Set<String> COMPRESSIBLE_EXTENSIONS = Set.of(
+            ".html", ".htm", ".css", ".js", ".mjs", ".json", ".svg", ".txt", ".xml", ".map"
+    );
+
+    private GzipUtils() {
+    }
+
+    /**
+     * 判断文件是否需要预压缩
+     *
+     * @param fileName 文件名
+     * @param size     文件大小
+     * @return 是否需要预压缩
+     */
+    public static boolean shouldCompress(String fileName, long size) {
+        if (size < MIN_COMPRESS_SIZE) {
+            return false;
+        }
+        int dotIndex = fileName.lastIndexOf('.');
+        return dotIndex >= 0 && COMPRESSIBLE_EXTENSIONS.contains(fileName.substring(dotIndex).toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * 将文件压缩到目标路径：先写临时文件再原子重命名，读取方不会读到写了一半的压缩文件
+     *
+     * @param source 源文件
+     * @param target 压缩文件
+     * @throws IOException 读写失败
+     */
+    public static void gzip(Path source, Path target) throws IOException {
+        writeGzip(target, outputStream -> Files.copy(source, outputStream));
+    }
+
+    /**
+     * 将已读取的内容压缩到目标路径，与 {@link #gzip(Path, Path)} 相同先写临时文件再原子重命名
+     *
+     * @param source 源内容
+     * @param target 压缩文件
+     * @throws IOException 写入失败
+     */
+    public static void gzip(byte[] source, Path target) throws IOException {
+        writeGzip(target, outputStream -> outputStream.write(source));
+    }
+
+    private static void writeGzip(Path target, GzipWriter writer) throws IOException {
+        Path tempFile = target.resolveSibling("." + target.getFileName() + "." + RandomUtil.randomString(6) + ".part");
+        try {
+            try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(tempFile))) {
+                writer.write(outputStream);
+            }
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    @FunctionalInterface
+    private interface GzipWriter {
+
+        void write(OutputStream outputStream) throws IOException;
+    }
+}
@@ -0,0 +1,230 @@
+package com.dong.dongaicodegenerator.utils;
+
+import cn.hutool.core.util.StrUtil;
+
+import java.io.FileFilter;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 路径忽略规则匹配器
+ * 忽略规则为 gitignore 的简化形式，编译后逐段匹配，每段只做一次哈希查找和两次字典树查找：
+ * <ul>
+ *     <li>{@code node_modules}：任意层级中名称完全相同的文件或目录</li>
+ *     <li>{@code *.log}：任意层级中以该后缀结尾的文件或目录</li>
+ *     <li>{@code .env*}：任意层级中以该前缀开头的文件或目录</li>
+ *     <li>{@code /dist}、{@code public/uploads}：含有 / 的规则相对项目根目录匹配，各段不支持通配符</li>
+ * </ul>
+ * 目录被忽略时其下所有内容都被忽略，遍历时整体跳过。规则末尾的 / 会被去掉，不区分文件和目录
+ */
+public class PathIgnoreMatcher {
+
+    private final Set<String> names = new HashSet<>();
+
+    private final CharTrie prefixes = new CharTrie();
+
+    /**
+     * 后缀按倒序字符存放
+     */
+    private final CharTrie suffixes = new CharTrie();
+
+    private final SegmentNode anchoredRoot = new SegmentNode();
+
+    private PathIgnoreMatcher() {
+    }
+
+    /**
+     * 编译忽略规则
+     *
+     * @param patterns 忽略规则，空白规则和 # 开头的注释被跳过
+     * @return 匹配器
+     */
+    public static PathIgnoreMatcher compile(Collection<String> patterns) {
+        PathIgnoreMatcher matcher = new PathIgnoreMatcher();
+        for (String rawPattern : patterns) {
+            String pattern = StrUtil.trim(rawPattern);
+            if (StrUtil.isEmpty(pattern) || pattern.startsWith("#")) {
+                continue;
+            }
+            pattern = StrUtil.removeSuffix(pattern, "/");
+            if (pattern.contains("/")) {
+                matcher.addAnchored(StrUtil.removePrefix(pattern, "/"));
+            } else if (pattern.length() > 1 && pattern.startsWith("*")) {
+                matcher.suffixes.add(new StringBuilder(pattern.substring(1)).reverse());
+            } else if (pattern.length() > 1 && pattern.endsWith("*")) {
+                matcher.prefixes.add(pattern.substring(0, pattern.length() - 1));
+            } else {
+                matcher.names.add(pattern);
+            }
+        }
+        return matcher;
+    }
+
+    private void addAnchored(String pattern) {
+        SegmentNode node = anchoredRoot;
+        for (String segment : StrUtil.splitTrim(pattern, '/')) {
+            node = node.children.computeIfAbsent(segment, key -> new SegmentNode());
+        }
+        node.terminal = true;
+    }
+
+    /**
+     * 判断相对路径是否被忽略，任一层级被忽略即被忽略
+     *
+     * @param relativePath 相对项目根目录的路径
+     * @return 是否被忽略
+     */
+    public boolean isIgnored(Path relativePath) {
+        SegmentNode anchored = anchoredRoot;
+        for (Path part : relativePath) {
+            String name = part.toString();
+            if (isIgnoredName(name)) {
+                return true;
+            }
+            if (anchored != null) {
+                anchored = anchored.children.get(name);
+                if (anchored != null && anchored.terminal) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 判断文件或目录名是否命中不限层级的规则
+     *
+     * @param name 文件或目录名
+     * @return 是否被忽略
+     */
+    public boolean isIgnoredName(String name) {
+        return names.contains(name) || prefixes.matchesPrefixOf(name, false) || suffixes.matchesPrefixOf(name, true);
+    }
+
+    /**
+     * 以文件过滤器的形式使用，被拒绝的目录不会再向下遍历
+     *
+     * @param root 项目根目录
+     * @return 接受未被忽略的文件和目录的过滤器
+     */
+    public FileFilter asFileFilter(Path root) {
+        return file -> !isIgnored(root.relativize(file.toPath()));
+    }
+
+    /**
+     * 列出目录下所有未被忽略的普通文件，被忽略的目录整体跳过，结果按相对路径排序
+     *
+     * @param root 项目根目录
+     * @return 文件列表
+     * @throws IOException 遍历失败
+     */
+    public List<Path> listFiles(Path root) throws IOException {
+        List<Path> files = new ArrayList<>();
+        // 与目录栈同步记录每层在根目录规则树中的位置，null 表示已不可能命中根目录规则
+        Deque<SegmentNode> anchoredStack = new ArrayDeque<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (anchoredStack.isEmpty()) {
+                    anchoredStack.push(anchoredRoot);
+                    return FileVisitResult.CONTINUE;
+                }
+                String name = dir.getFileName().toString();
+                SegmentNode anchored = childOf(anchoredStack.peek(), name);
+                if (isIgnoredName(name) || (anchored != null && anchored.terminal)) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                anchoredStack.push(anchored == null ? SegmentNode.NONE : anchored);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                String name = file.getFileName().toString();
+                SegmentNode anchored = childOf(anchoredStack.peek(), name);
+                if (attrs.isRegularFile() && !isIgnoredName(name) && (anchored == null || !anchored.terminal)) {
+                    files.add(file);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                anchoredStack.pop();
+                return super.postVisitDirectory(dir, exc);
+            }
+        });
+        files.sort(Comparator.comparing(file -> root.relativize(file).toString()));
+        return files;
+    }
+
+    private static SegmentNode childOf(SegmentNode node, String name) {
+        return node == null ? null : node.children.get(name);
+    }
+
+    /**
+     * 根目录规则按路径段组成的树
+     */
+    private static final class SegmentNode {
+
+        /**
+         * 没有任何子节点的哨兵，避免在栈中存放 null
+         */
+        private static final SegmentNode NONE = new SegmentNode();
+
+        private final Map<String, SegmentNode> children = new HashMap<>();
+
+        private boolean terminal;
+    }
+
+    /**
+     * 字符字典树，判断字符串是否以任一已加入的串开头
+     */
+    private static final class CharTrie {
+
+        private final Map<Character, CharTrie> children = new HashMap<>();
+
+        private boolean terminal;
+
+        private void add(CharSequence key) {
+            CharTrie node = this;
+            for (int i = 0; i < key.length(); i++) {
+                node = node.children.computeIfAbsent(key.charAt(i), c -> new CharTrie());
+            }
+            node.terminal = true;
+        }
+
+        /**
+         * @param value   待匹配的字符串
+         * @param reverse 是否从末尾向前匹配（用于后缀）
+         */
+        private boolean matchesPrefixOf(String value, boolean reverse) {
+            CharTrie node = this;
+            int length = value.length();
+            for (int i = 0; i < length && !node.children.isEmpty(); i++) {
+                node = node.children.get(value.charAt(reverse ? length - 1 - i : i));
+                if (node == null) {
+                    return false;
+                }
+                if (node.terminal) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.dong.dongaicodegenerator.utils;
+
+import com.dong.dongaicodegenerator.exception.BusinessException;
+import com.dong.dongaicodegenerator.exception.ErrorCode;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+/**
+ * SSE 事件编码工具类
+ * 流式输出的每个片段都要编码一次，这里直接使用 Jackson 流式 API 写出 {"d": 片段}，
+ * 不经过 Map 与反射序列化
+ */
+public class SseEventUtils {
+
+    /**
+     * JsonFactory 线程安全，全局共享
+     */
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * 片段数据的字段名
+     */
+    private static final String DATA_FIELD = "d";
+
+    private SseEventUtils() {
+    }
+
+    /**
+     * 将片段编码为 {"d": 片段} 格式的 JSON
+     *
+     * @param chunk 片段内容
+     * @return JSON 字符串
+     */
+    public static String encodeChunk(String chunk) {
+        // 预留引号、字段名和少量转义字符的空间，避免扩容
+        StringWriter writer = new StringWriter(chunk.length() + 16);
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(writer)) {
+            generator.writeStartObject();
+            generator.writeStringField(DATA_FIELD, chunk);
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "SSE 事件编码失败");
+        }
+        return writer.toString();
+    }
+}
@@ -4,82 +4,43 @@ import cn.hutool.core.img.ImgUtil;
 import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.util.RandomUtil;
 import cn.hutool.core.util.StrUtil;
+import com.dong.dongaicodegenerator.config.ScreenshotConfig;
 import com.dong.dongaicodegenerator.exception.BusinessException;
 import com.dong.dongaicodegenerator.exception.ErrorCode;
-import io.github.bonigarcia.wdm.WebDriverManager;
-import jakarta.annotation.PreDestroy;
+import com.dong.dongaicodegenerator.manager.WebDriverPool;
+import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import org.springframework.stereotype.Component;
 
 import java.io.File;
-import java.net.URI;
 import java.time.Duration;
 import java.util.UUID;
 
+/**
+ * 网页截图工具
+ * 浏览器由 {@link WebDriverPool} 统一管理，多个截图任务可以在不同的浏览器中并行执行
+ */
 @Slf4j
+@Component
 public class WebScreenshotUtils {
 
-    private static final WebDriver webDriver;
-
-    static {
-        final int DEFAULT_WIDTH = 1600;
-        final int DEFAULT_HEIGHT = 900;
-        webDriver = initChromeDriver(DEFAULT_WIDTH, DEFAULT_HEIGHT);
-    }
-
-    @PreDestroy
-    public void destroy() {
-        webDriver.quit();
-    }
-
     /**
-     * 初始化 Chrome 浏览器驱动
+     * 判断字体和图片是否渲染完成的脚本
      */
-    /**
-     * 初始化 Chrome 浏览器驱动
-     */
-    private static WebDriver initChromeDriver(int width, int height) {
-        try {
-            // 自动管理 ChromeDriver
-            WebDriverManager.chromedriver().config()
-                    .setChromeDriverMirrorUrl(URI.create("https://npmmirror.com/mirrors/chromedriver/").toURL());
-            WebDriverManager.chromedriver().setup();
-            // 配置 Chrome 选项
-            ChromeOptions options = new ChromeOptions();
-            // 无头模式
-            options.addArguments("--headless");
-            // 禁用GPU（在某些环境下避免问题）
-            options.addArguments("--disable-gpu");
-            // 禁用沙盒模式（Docker环境需要）
-            options.addArguments("--no-sandbox");
-            // 禁用开发者shm使用
-            options.addArguments("--disable-dev-shm-usage");
-            // 设置窗口大小
-            options.addArguments(String.format("--window-size=%d,%d", width, height));
-            // 禁用扩展
-            options.addArguments("--disable-extensions");
-            // 设置用户代理
-            options.addArguments("--user-agent=Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 (KHTML, like Gecko) Chrome/91.0.4472.124 Safari/537.36");
-            // 创建驱动
-            WebDriver driver = new ChromeDriver(options);
-            // 设置页面加载超时
-            driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
-            // 设置隐式等待
-            driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(10));
-            return driver;
-        } catch (Exception e) {
-            log.error("初始化 Chrome 浏览器失败", e);
-            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "初始化 Chrome 浏览器失败");
-        }
-    }
+    private static final String RENDER_COMPLETE_SCRIPT = "return (!document.fonts || document.fonts.status === 'loaded')"
+            + " && Array.from(document.images).every(img => img.complete)";
 
+    @Resource
+    private WebDriverPool webDriverPool;
 
+    @Resource
+    private ScreenshotConfig screenshotConfig;
 
     /**
      * 保存图片到文件
@@ -114,7 +75,7 @@ public class WebScreenshotUtils {
     /**
      * 等待页面加载完成
      */
-    private static void waitForPageLoad(WebDriver driver) {
+    private void waitForPageLoad(WebDriver driver) {
         try {
             // 创建等待页面加载对象
             WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
@@ -123,8 +84,10 @@ public class WebScreenshotUtils {
                     ((JavascriptExecutor) webDriver).executeScript("return document.readyState")
                             .equals("complete")
             );
-            // 额外等待一段时间，确保动态内容加载完成
-            Thread.sleep(2000);
+            // 等待字体和图片渲染完成，代替固定时长的等待
+            new WebDriverWait(driver, Duration.ofMillis(screenshotConfig.getRenderTimeoutMs()), Duration.ofMillis(100))
+                    .until(webDriver -> Boolean.TRUE.equals(
+                            ((JavascriptExecutor) webDriver).executeScript(RENDER_COMPLETE_SCRIPT)));
             log.info("页面加载完成");
         } catch (Exception e) {
             log.error("等待页面加载时出现异常，继续执行截图", e);
@@ -137,12 +100,21 @@ public class WebScreenshotUtils {
      * @param webUrl 网页URL
      * @return 压缩后的截图文件路径，失败返回null
      */
-    public static String saveWebPageScreenshot(String webUrl) {
+    public String saveWebPageScreenshot(String webUrl) {
         if (StrUtil.isBlank(webUrl)) {
             log.error("网页URL不能为空");
             return null;
         }
+        WebDriverPool.PooledWebDriver pooledWebDriver;
+        try {
+            pooledWebDriver = webDriverPool.borrow();
+        } catch (Exception e) {
+            log.error("获取截图浏览器失败: {}", webUrl, e);
+            return null;
+        }
+        boolean broken = false;
         try {
+            WebDriver webDriver = pooledWebDriver.getDriver();
             // 创建临时目录
             String rootPath = System.getProperty("user.dir") + File.separator + "temp" + File.separator + "screenshots"
                     + File.separator + UUID.randomUUID().toString().substring(0, 8);
@@ -168,9 +140,16 @@ public class WebScreenshotUtils {
             // 删除原始图片，只保留压缩图片
             FileUtil.del(imageSavePath);
             return compressedImagePath;
+        } catch (WebDriverException e) {
+            // 浏览器异常（崩溃、会话失效等）的实例不再放回池中
+            log.error("网页截图失败: {}", webUrl, e);
+            broken = true;
+            return null;
         } catch (Exception e) {
             log.error("网页截图失败: {}", webUrl, e);
             return null;
+        } finally {
+            webDriverPool.release(pooledWebDriver, broken);
         }
     }
 
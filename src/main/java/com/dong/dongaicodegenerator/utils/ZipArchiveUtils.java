@@ -0,0 +1,278 @@
+package com.dong.dongaicodegenerator.utils;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * zip 归档工具类
+ * 各文件的压缩并行执行，写出按文件顺序串行进行：同时压缩的文件数有上限，内存占用与项目大小无关。
+ * 图片、字体等本身已压缩的文件以 STORED 方式存放，压缩后没有变小的文件同样不压缩。
+ * 只生成普通 zip 格式（不含 ZIP64），单个文件不能超过 2GB，整个归档不能超过 4GB
+ */
+public class ZipArchiveUtils {
+
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+
+    private static final short VERSION = 20;
+
+    /**
+     * 通用标志位第 11 位：文件名使用 UTF-8 编码
+     */
+    private static final short UTF8_FLAG = 0x0800;
+
+    private static final short METHOD_STORED = 0;
+
+    private static final short METHOD_DEFLATED = 8;
+
+    private static final long MAX_ZIP32_SIZE = 0xFFFFFFFFL;
+
+    private static final int MAX_ZIP32_ENTRIES = 0xFFFF;
+
+    /**
+     * 单个文件整体读入内存压缩，大小受数组长度限制
+     */
+    private static final long MAX_FILE_SIZE = Integer.MAX_VALUE - 8;
+
+    /**
+     * 本身已压缩的文件类型，再次压缩几乎没有收益
+     */
+    private static final Set<String> STORED_EXTENSIONS = Set.of(
+            ".png", ".jpg", ".jpeg", ".gif", ".webp", ".avif",
+            ".woff", ".woff2", ".mp3", ".mp4", ".webm",
+            ".zip", ".gz", ".br", ".7z"
+    );
+
+    /**
+     * 同时压缩的文件数上限
+     */
+    private static final int COMPRESS_WINDOW = Math.max(2, Runtime.getRuntime().availableProcessors() * 2);
+
+    private ZipArchiveUtils() {
+    }
+
+    /**
+     * 将文件打包为 zip
+     *
+     * @param rootDir 根目录，条目名为文件相对根目录的路径
+     * @param files   要打包的文件，按此顺序写入
+     * @param target  zip 文件
+     * @throws IOException 读写失败或超出 zip 格式的大小限制
+     */
+    public static void createArchive(Path rootDir, List<Path> files, Path target) throws IOException {
+        if (files.size() > MAX_ZIP32_ENTRIES) {
+            throw new IOException("文件数超过 zip 格式上限：" + files.size());
+        }
+        List<CompressedEntry> writtenEntries = new ArrayList<>(files.size());
+        Deque<CompletableFuture<CompressedEntry>> pending = new ArrayDeque<>();
+        Iterator<Path> fileIterator = files.iterator();
+        long offset = 0;
+        try (OutputStream outputStream = new BufferedOutputStream(Files.newOutputStream(target), 64 * 1024)) {
+            while (fileIterator.hasNext() || !pending.isEmpty()) {
+                while (fileIterator.hasNext() && pending.size() < COMPRESS_WINDOW) {
+                    Path file = fileIterator.next();
+                    pending.add(CompletableFuture.supplyAsync(() -> compress(rootDir, file)));
+                }
+                CompressedEntry entry = await(pending.poll());
+                entry.localHeaderOffset = offset;
+                offset += writeLocalEntry(outputStream, entry);
+                // 数据已写出，只保留写中央目录所需的信息
+                entry.data = null;
+                writtenEntries.add(entry);
+                if (offset > MAX_ZIP32_SIZE) {
+                    throw new IOException("归档大小超过 zip 格式上限");
+                }
+            }
+            long centralDirectoryOffset = offset;
+            for (CompressedEntry entry : writtenEntries) {
+                offset += writeCentralHeader(outputStream, entry);
+            }
+            if (offset > MAX_ZIP32_SIZE) {
+                throw new IOException("归档大小超过 zip 格式上限");
+            }
+            writeEndOfCentralDirectory(outputStream, writtenEntries.size(), offset - centralDirectoryOffset, centralDirectoryOffset);
+        } finally {
+            // 出错时取消尚未开始的压缩任务
+            pending.forEach(future -> future.cancel(false));
+        }
+    }
+
+    private static CompressedEntry await(CompletableFuture<CompressedEntry> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static CompressedEntry compress(Path rootDir, Path file) {
+        try {
+            if (Files.size(file) > MAX_FILE_SIZE) {
+                throw new IOException("文件过大，无法打包：" + file);
+            }
+            byte[] content = Files.readAllBytes(file);
+            CompressedEntry entry = new CompressedEntry();
+            entry.name = rootDir.relativize(file).toString().replace('\\', '/').getBytes(StandardCharsets.UTF_8);
+            entry.dosTime = toDosTime(Files.getLastModifiedTime(file).toMillis());
+            entry.size = content.length;
+            CRC32 crc32 = new CRC32();
+            crc32.update(content);
+            entry.crc = crc32.getValue();
+            entry.method = METHOD_STORED;
+            entry.data = content;
+            if (!isStoredType(file.getFileName().toString())) {
+                byte[] deflated = deflate(content);
+                if (deflated.length < content.length) {
+                    entry.method = METHOD_DEFLATED;
+                    entry.data = deflated;
+                }
+            }
+            return entry;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static byte[] deflate(byte[] content) {
+        // zip 条目使用不带 zlib 头的原始 deflate 数据
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try {
+            deflater.setInput(content);
+            deflater.finish();
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(content.length / 2 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int length = deflater.deflate(buffer);
+                outputStream.write(buffer, 0, length);
+            }
+            return outputStream.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static boolean isStoredType(String fileName) {
+        int dotIndex = fileName.lastIndexOf('.');
+        return dotIndex >= 0 && STORED_EXTENSIONS.contains(fileName.substring(dotIndex).toLowerCase(Locale.ROOT));
+    }
+
+    private static long writeLocalEntry(OutputStream outputStream, CompressedEntry entry) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(30 + entry.name.length).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(LOCAL_HEADER_SIGNATURE)
+                .putShort(VERSION)
+                .putShort(UTF8_FLAG)
+                .putShort(entry.method)
+                .putInt(entry.dosTime)
+                .putInt((int) entry.crc)
+                .putInt(entry.data.length)
+                .putInt((int) entry.size)
+                .putShort((short) entry.name.length)
+                .putShort((short) 0)
+                .put(entry.name);
+        outputStream.write(header.array());
+        outputStream.write(entry.data);
+        entry.compressedSize = entry.data.length;
+        return header.capacity() + entry.compressedSize;
+    }
+
+    private static long writeCentralHeader(OutputStream outputStream, CompressedEntry entry) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(46 + entry.name.length).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(CENTRAL_HEADER_SIGNATURE)
+                .putShort(VERSION)
+                .putShort(VERSION)
+                .putShort(UTF8_FLAG)
+                .putShort(entry.method)
+                .putInt(entry.dosTime)
+                .putInt((int) entry.crc)
+                .putInt((int) entry.compressedSize)
+                .putInt((int) entry.size)
+                .putShort((short) entry.name.length)
+                // 扩展字段、注释、起始磁盘号、内部属性、外部属性
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putInt(0)
+                .putInt((int) entry.localHeaderOffset)
+                .put(entry.name);
+        outputStream.write(header.array());
+        return header.capacity();
+    }
+
+    private static void writeEndOfCentralDirectory(OutputStream outputStream, int entryCount,
+                                                   long centralDirectorySize, long centralDirectoryOffset) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(22).order(ByteOrder.LITTLE_ENDIAN);
+        record.putInt(END_OF_CENTRAL_DIRECTORY_SIGNATURE)
+                .putShort((short) 0)
+                .putShort((short) 0)
+                .putShort((short) entryCount)
+                .putShort((short) entryCount)
+                .putInt((int) centralDirectorySize)
+                .putInt((int) centralDirectoryOffset)
+                .putShort((short) 0);
+        outputStream.write(record.array());
+    }
+
+    /**
+     * 转换为 MS-DOS 格式的日期时间：高 16 位为日期，低 16 位为时间（精度 2 秒），早于 1980 年的按 1980-01-01 处理
+     */
+    private static int toDosTime(long epochMillis) {
+        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+        if (time.getYear() < 1980) {
+            return (1 << 21) | (1 << 16);
+        }
+        int date = ((time.getYear() - 1980) << 9) | (time.getMonthValue() << 5) | time.getDayOfMonth();
+        int dosTime = (time.getHour() << 11) | (time.getMinute() << 5) | (time.getSecond() >> 1);
+        return (date << 16) | dosTime;
+    }
+
+    /**
+     * 压缩完成待写出的条目
+     */
+    private static final class CompressedEntry {
+
+        private byte[] name;
+
+        private int dosTime;
+
+        private long crc;
+
+        private long size;
+
+        private short method;
+
+        private byte[] data;
+
+        private long compressedSize;
+
+        private long localHeaderOffset;
+    }
+}
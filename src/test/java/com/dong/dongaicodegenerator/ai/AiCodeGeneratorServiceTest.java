@@ -17,13 +17,13 @@ class AiCodeGeneratorServiceTest {
 
     @Test
     void generateHtmlCode() {
-        HtmlCodeResult htmlCodeResult = aiCodeGeneratorService.generateHtmlCode("做一个程序员旭东的博客，代码不超过20行");
+        HtmlCodeResult htmlCodeResult = aiCodeGeneratorService.generateHtmlCode(1L, "做一个程序员旭东的博客，代码不超过20行");
         Assertions.assertNotNull(htmlCodeResult);
     }
 
     @Test
     void generateMultiFleCode() {
-        MultiFileCodeResult multiFileCodeResult = aiCodeGeneratorService.generateMultiFleCode("做一个程序员旭东的留言板，代码不超过20行");
+        MultiFileCodeResult multiFileCodeResult = aiCodeGeneratorService.generateMultiFleCode(1L, "做一个程序员旭东的留言板，代码不超过20行");
         Assertions.assertNotNull(multiFileCodeResult);
     }
 }
\ No newline at end of file
@@ -0,0 +1,81 @@
+package com.dong.dongaicodegenerator.ai.mock;
+
+import com.dong.dongaicodegenerator.config.MockChatModelConfig;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.agent.tool.ToolSpecification;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.model.chat.request.ChatRequest;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.chat.response.StreamingChatResponseHandler;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MockStreamingChatModelTest {
+
+    private final MockTranscripts mockTranscripts = new MockTranscripts(new File("src/test/resources/transcripts"));
+
+    private MockStreamingChatModel createModel() {
+        MockChatModelConfig config = new MockChatModelConfig();
+        config.setTokensPerSecond(0);
+        config.setFirstTokenLatencyMs(0);
+        return new MockStreamingChatModel(mockTranscripts, config);
+    }
+
+    @Test
+    void replayMultiFileTranscript() throws Exception {
+        ChatRequest chatRequest = ChatRequest.builder()
+                .messages(SystemMessage.from("生成 index.html、style.css、script.js"), UserMessage.from("做一个博客"))
+                .build();
+        StringBuilder partialBuilder = new StringBuilder();
+        ChatResponse chatResponse = chat(chatRequest, partialBuilder, new StringBuilder());
+        assertEquals(mockTranscripts.getMultiFileContent(), partialBuilder.toString());
+        assertEquals(mockTranscripts.getMultiFileContent(), chatResponse.aiMessage().text());
+    }
+
+    @Test
+    void replayToolCallTurn() throws Exception {
+        ChatRequest chatRequest = ChatRequest.builder()
+                .messages(UserMessage.from("做一个 Vue 博客"))
+                .toolSpecifications(ToolSpecification.builder().name("writeFile").build())
+                .build();
+        StringBuilder argumentsBuilder = new StringBuilder();
+        ChatResponse chatResponse = chat(chatRequest, new StringBuilder(), argumentsBuilder);
+        assertTrue(chatResponse.aiMessage().hasToolExecutionRequests());
+        ToolExecutionRequest toolExecutionRequest = chatResponse.aiMessage().toolExecutionRequests().get(0);
+        assertEquals("writeFile", toolExecutionRequest.name());
+        // 增量参数拼接后与完整参数一致
+        assertEquals(toolExecutionRequest.arguments(), argumentsBuilder.toString());
+    }
+
+    private ChatResponse chat(ChatRequest chatRequest, StringBuilder partialBuilder, StringBuilder argumentsBuilder) throws Exception {
+        CompletableFuture<ChatResponse> future = new CompletableFuture<>();
+        createModel().chat(chatRequest, new StreamingChatResponseHandler() {
+            @Override
+            public void onPartialResponse(String partialResponse) {
+                partialBuilder.append(partialResponse);
+            }
+
+            @Override
+            public void onPartialToolExecutionRequest(int index, ToolExecutionRequest partialToolExecutionRequest) {
+                argumentsBuilder.append(partialToolExecutionRequest.arguments());
+            }
+
+            @Override
+            public void onCompleteResponse(ChatResponse completeResponse) {
+                future.complete(completeResponse);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                future.completeExceptionally(error);
+            }
+        });
+        return future.get(30, TimeUnit.SECONDS);
+    }
+}
@@ -1,5 +1,6 @@
 package com.dong.dongaicodegenerator.core;
 
+import com.dong.dongaicodegenerator.ai.model.message.StreamMessage;
 import com.dong.dongaicodegenerator.model.enums.CodeGenTypeEnum;
 import jakarta.annotation.Resource;
 import org.junit.jupiter.api.Assertions;
@@ -26,9 +27,9 @@ class AiCodeGeneratorFacadeTest {
 //
 //    @Test
 //    void generateAndSaveCodeStream() {
-//        Flux<String> codeStream = aiCodeGeneratorFacade.generateAndSaveCodeWithStream("任务记录网站", CodeGenTypeEnum.MULTI_FILE);
+//        Flux<StreamMessage> codeStream = aiCodeGeneratorFacade.generateAndSaveCodeWithStream("任务记录网站", CodeGenTypeEnum.MULTI_FILE);
 //        // 阻塞等待所有数据收集完成
-//        List<String> result = codeStream.collectList().block();
+//        List<StreamMessage> result = codeStream.collectList().block();
 //        // 验证结果
 //        Assertions.assertNotNull(result);
 //        String completeContent = String.join("", result);
@@ -44,26 +45,24 @@ class AiCodeGeneratorFacadeTest {
 
     @Test
     void generateAndSaveCodeStream() {
-        Flux<String> codeStream = aiCodeGeneratorFacade.generateCodeAndSaveWithStream("任务记录网站", CodeGenTypeEnum.MULTI_FILE, 1L);
+        Flux<StreamMessage> codeStream = aiCodeGeneratorFacade.generateCodeAndSaveWithStream("任务记录网站", CodeGenTypeEnum.MULTI_FILE, 1L);
         // 阻塞等待所有数据收集完成
-        List<String> result = codeStream.collectList().block();
+        List<StreamMessage> result = codeStream.collectList().block();
         // 验证结果
         Assertions.assertNotNull(result);
-        String completeContent = String.join("", result);
-        Assertions.assertNotNull(completeContent);
+        Assertions.assertFalse(result.isEmpty());
     }
 
     @Test
     void generateVueProjectCodeStream() {
-        Flux<String> codeStream = aiCodeGeneratorFacade.generateCodeAndSaveWithStream(
+        Flux<StreamMessage> codeStream = aiCodeGeneratorFacade.generateCodeAndSaveWithStream(
                 "简单的任务记录网站，总代码量不超过 200 行",
                 CodeGenTypeEnum.VUE_PROJECT, 1L);
         // 阻塞等待所有数据收集完成
-        List<String> result = codeStream.collectList().block();
+        List<StreamMessage> result = codeStream.collectList().block();
         // 验证结果
         Assertions.assertNotNull(result);
-        String completeContent = String.join("", result);
-        Assertions.assertNotNull(completeContent);
+        Assertions.assertFalse(result.isEmpty());
     }
 
 }
\ No newline at end of file
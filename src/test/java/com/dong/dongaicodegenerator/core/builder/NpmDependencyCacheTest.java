@@ -0,0 +1,85 @@
+package com.dong.dongaicodegenerator.core.builder;
+
+import com.dong.dongaicodegenerator.config.VueBuildConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NpmDependencyCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final NpmDependencyCache npmDependencyCache = new NpmDependencyCache();
+
+    private final AtomicInteger installCount = new AtomicInteger();
+
+    /**
+     * 模拟 npm install：写入一个依赖文件和 .bin 下的符号链接
+     */
+    private final Predicate<File> fakeNpmInstall = projectDir -> {
+        installCount.incrementAndGet();
+        try {
+            Path vueDir = projectDir.toPath().resolve("node_modules/vue");
+            Files.createDirectories(vueDir);
+            Files.writeString(vueDir.resolve("index.js"), "export default {}");
+            Path binDir = projectDir.toPath().resolve("node_modules/.bin");
+            Files.createDirectories(binDir);
+            Files.createSymbolicLink(binDir.resolve("vue"), Path.of("../vue/index.js"));
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        VueBuildConfig vueBuildConfig = new VueBuildConfig();
+        vueBuildConfig.setDependencyCacheDir(tempDir.resolve("cache").toString());
+        ReflectionTestUtils.setField(npmDependencyCache, "vueBuildConfig", vueBuildConfig);
+    }
+
+    @Test
+    void sameDependenciesShareInstalledModules() throws IOException {
+        File first = createProject("first", "{\"name\":\"a\",\"dependencies\":{\"vue\":\"^3.5.0\",\"axios\":\"^1.7.0\"}}");
+        // 项目名称和依赖顺序不同，不影响缓存命中
+        File second = createProject("second", "{\"name\":\"b\",\"dependencies\":{\"axios\":\"^1.7.0\",\"vue\":\"^3.5.0\"}}");
+        assertTrue(npmDependencyCache.installDependencies(first, fakeNpmInstall));
+        assertTrue(npmDependencyCache.installDependencies(second, fakeNpmInstall));
+        assertEquals(1, installCount.get());
+        Path secondModules = second.toPath().resolve("node_modules");
+        assertTrue(Files.isSameFile(first.toPath().resolve("node_modules/vue/index.js"), secondModules.resolve("vue/index.js")));
+        assertTrue(Files.isSymbolicLink(secondModules.resolve(".bin/vue")));
+        assertEquals("export default {}", Files.readString(secondModules.resolve(".bin/vue")));
+    }
+
+    @Test
+    void changedDependenciesInstallAgain() throws IOException {
+        File project = createProject("project", "{\"dependencies\":{\"vue\":\"^3.5.0\"}}");
+        assertTrue(npmDependencyCache.installDependencies(project, fakeNpmInstall));
+        // 依赖未变化的重复构建跳过安装
+        assertTrue(npmDependencyCache.installDependencies(project, fakeNpmInstall));
+        assertEquals(1, installCount.get());
+        Files.writeString(project.toPath().resolve("package.json"), "{\"dependencies\":{\"vue\":\"^3.5.0\",\"pinia\":\"^2.0.0\"}}");
+        assertTrue(npmDependencyCache.installDependencies(project, fakeNpmInstall));
+        assertEquals(2, installCount.get());
+    }
+
+    private File createProject(String name, String packageJson) throws IOException {
+        Path projectDir = tempDir.resolve(name);
+        Files.createDirectories(projectDir);
+        Files.writeString(projectDir.resolve("package.json"), packageJson);
+        return projectDir.toFile();
+    }
+}
@@ -0,0 +1,71 @@
+package com.dong.dongaicodegenerator.core.builder;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VueBuildProgressTrackerTest {
+
+    private static final String PROJECT_PATH = "/tmp/vue_project_1";
+
+    private final VueBuildProgressTracker vueBuildProgressTracker = new VueBuildProgressTracker();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(vueBuildProgressTracker, "meterRegistry", new SimpleMeterRegistry());
+    }
+
+    @Test
+    void lateSubscriberReceivesPhasesAndLogHeadAndTail() {
+        VueBuildProgressTracker.BuildProgress buildProgress = vueBuildProgressTracker.start(PROJECT_PATH);
+        buildProgress.phase(VueBuildProgressTracker.BuildPhase.QUEUED);
+        buildProgress.phase(VueBuildProgressTracker.BuildPhase.INSTALL);
+        for (int i = 0; i < 600; i++) {
+            if (i == 300) {
+                buildProgress.phase(VueBuildProgressTracker.BuildPhase.BUILD);
+            }
+            buildProgress.log("line-" + i);
+        }
+        buildProgress.finish(true);
+
+        List<VueBuildProgressTracker.BuildProgressEvent> events = vueBuildProgressTracker.watch(PROJECT_PATH)
+                .collectList()
+                .block();
+        assertNotNull(events);
+        List<String> phases = new ArrayList<>();
+        List<String> logs = new ArrayList<>();
+        for (VueBuildProgressTracker.BuildProgressEvent event : events) {
+            if (VueBuildProgressTracker.EVENT_LOG.equals(event.getEvent())) {
+                logs.add(event.getData());
+            } else {
+                phases.add(event.getEvent() + ":" + event.getData());
+            }
+        }
+        // 阶段和结果完整回放，输出保留开头 100 行与最近 400 行
+        assertEquals(List.of("phase:queued", "phase:install", "phase:build", "done:success"), phases);
+        assertEquals(501, logs.size());
+        assertEquals("line-0", logs.get(0));
+        assertEquals("line-99", logs.get(99));
+        assertTrue(logs.get(100).contains("100"));
+        assertEquals("line-200", logs.get(101));
+        assertEquals("line-599", logs.get(500));
+    }
+
+    @Test
+    void subscriberDuringBuildReceivesReplayThenLiveEvents() {
+        VueBuildProgressTracker.BuildProgress buildProgress = vueBuildProgressTracker.start(PROJECT_PATH);
+        buildProgress.phase(VueBuildProgressTracker.BuildPhase.INSTALL);
+        buildProgress.log("before");
+        List<String> received = new ArrayList<>();
+        vueBuildProgressTracker.watch(PROJECT_PATH).subscribe(event -> received.add(event.getData()));
+        buildProgress.log("after");
+        buildProgress.finish(false);
+        assertEquals(List.of("install", "before", "after", "failure"), received);
+    }
+}
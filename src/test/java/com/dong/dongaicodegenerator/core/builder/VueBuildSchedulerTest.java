@@ -0,0 +1,102 @@
+package com.dong.dongaicodegenerator.core.builder;
+
+import com.dong.dongaicodegenerator.config.VueBuildConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VueBuildSchedulerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final VueBuildScheduler vueBuildScheduler = new VueBuildScheduler();
+
+    private final List<String> builtProjects = new CopyOnWriteArrayList<>();
+
+    private final CountDownLatch firstBuildStarted = new CountDownLatch(1);
+
+    private final CountDownLatch releaseFirstBuild = new CountDownLatch(1);
+
+    /**
+     * 模拟构建：第一次构建阻塞到测试放行，用于制造“构建中”的状态
+     */
+    private final VueProjectBuilder fakeVueProjectBuilder = new VueProjectBuilder() {
+        @Override
+        public boolean buildProject(String projectPath) {
+            builtProjects.add(projectPath);
+            if (builtProjects.size() == 1) {
+                firstBuildStarted.countDown();
+                try {
+                    return releaseFirstBuild.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VueBuildConfig vueBuildConfig = new VueBuildConfig();
+        vueBuildConfig.setMaxConcurrentBuilds(1);
+        VueBuildProgressTracker vueBuildProgressTracker = new VueBuildProgressTracker();
+        ReflectionTestUtils.setField(vueBuildProgressTracker, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(vueBuildScheduler, "vueBuildConfig", vueBuildConfig);
+        ReflectionTestUtils.setField(vueBuildScheduler, "vueProjectBuilder", fakeVueProjectBuilder);
+        ReflectionTestUtils.setField(vueBuildScheduler, "vueBuildProgressTracker", vueBuildProgressTracker);
+        ReflectionTestUtils.setField(vueBuildScheduler, "meterRegistry", meterRegistry);
+        vueBuildScheduler.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        releaseFirstBuild.countDown();
+        vueBuildScheduler.destroy();
+    }
+
+    @Test
+    void queuedRequestsShareOneBuild() throws Exception {
+        String running = tempDir.resolve("running").toString();
+        String queued = tempDir.resolve("queued").toString();
+        vueBuildScheduler.submit(running, VueBuildScheduler.BuildPriority.GENERATION);
+        assertTrue(firstBuildStarted.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Boolean> first = vueBuildScheduler.submit(queued, VueBuildScheduler.BuildPriority.GENERATION);
+        CompletableFuture<Boolean> second = vueBuildScheduler.submit(queued, VueBuildScheduler.BuildPriority.DEPLOY);
+        assertSame(first, second);
+        releaseFirstBuild.countDown();
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(running, queued), builtProjects);
+    }
+
+    @Test
+    void requestDuringBuildRunsFollowUpBuild() throws Exception {
+        String project = tempDir.resolve("project").toString();
+        CompletableFuture<Boolean> runningBuild = vueBuildScheduler.submit(project, VueBuildScheduler.BuildPriority.GENERATION);
+        assertTrue(firstBuildStarted.await(5, TimeUnit.SECONDS));
+        // 构建中提交的请求不复用正在进行的构建，构建期间的多次请求共用一次后续构建
+        CompletableFuture<Boolean> followUp = vueBuildScheduler.submit(project, VueBuildScheduler.BuildPriority.DEPLOY);
+        assertNotSame(runningBuild, followUp);
+        assertSame(followUp, vueBuildScheduler.submit(project, VueBuildScheduler.BuildPriority.DEPLOY));
+        assertFalse(followUp.isDone());
+        releaseFirstBuild.countDown();
+        assertTrue(runningBuild.get(5, TimeUnit.SECONDS));
+        assertTrue(followUp.get(5, TimeUnit.SECONDS));
+        assertEquals(List.of(project, project), builtProjects);
+    }
+}
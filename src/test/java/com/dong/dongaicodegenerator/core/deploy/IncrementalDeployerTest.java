@@ -0,0 +1,137 @@
+package com.dong.dongaicodegenerator.core.deploy;
+
+import com.dong.dongaicodegenerator.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IncrementalDeployerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final IncrementalDeployer incrementalDeployer = new IncrementalDeployer();
+
+    @Test
+    void redeploySwapsReleaseAndReusesUnchangedFiles() throws IOException {
+        Path sourceDir = tempDir.resolve("source");
+        Path deployRoot = tempDir.resolve("deploy");
+        Path releaseRoot = tempDir.resolve("releases");
+        write(sourceDir.resolve("index.html"), "<html>v1</html>");
+        write(sourceDir.resolve("assets/app.js"), "console.log(1)");
+        write(sourceDir.resolve("assets/old.js"), "old");
+        incrementalDeployer.deploy(sourceDir, deployRoot, releaseRoot, "abc123");
+        Path deployPath = deployRoot.resolve("abc123");
+        Path firstRelease = deployPath.toRealPath();
+
+        write(sourceDir.resolve("index.html"), "<html>v2</html>");
+        Files.delete(sourceDir.resolve("assets/old.js"));
+        incrementalDeployer.deploy(sourceDir, deployRoot, releaseRoot, "abc123");
+        Path secondRelease = deployPath.toRealPath();
+
+        assertTrue(Files.isSymbolicLink(deployPath));
+        assertNotEquals(firstRelease, secondRelease);
+        assertEquals("<html>v2</html>", Files.readString(deployPath.resolve("index.html")));
+        // 已删除的文件不会残留
+        assertFalse(Files.exists(deployPath.resolve("assets/old.js")));
+        // 未变化的文件与上一版本是同一个文件（硬链接）
+        assertTrue(Files.isSameFile(firstRelease.resolve("assets/app.js"), secondRelease.resolve("assets/app.js")));
+        // 上一版本保留，供切换前开始的请求继续读取
+        assertEquals("<html>v1</html>", Files.readString(firstRelease.resolve("index.html")));
+    }
+
+    @Test
+    void failedDeployRemovesStagedRelease() throws IOException {
+        Path sourceDir = tempDir.resolve("source");
+        Path deployRoot = tempDir.resolve("deploy");
+        Path releaseRoot = tempDir.resolve("releases");
+        write(sourceDir.resolve("index.html"), "<html>v1</html>");
+        incrementalDeployer.deploy(sourceDir, deployRoot, releaseRoot, "abc123");
+        Path firstRelease = deployRoot.resolve("abc123").toRealPath();
+
+        // 指向不存在文件的符号链接无法复制，部署在准备新版本的中途失败
+        Path brokenLink = sourceDir.resolve("broken.js");
+        Files.createSymbolicLink(brokenLink, tempDir.resolve("missing.js"));
+        assertThrows(BusinessException.class,
+                () -> incrementalDeployer.deploy(sourceDir, deployRoot, releaseRoot, "abc123"));
+        assertEquals(firstRelease, deployRoot.resolve("abc123").toRealPath());
+        try (Stream<Path> releases = Files.list(releaseRoot.resolve("abc123"))) {
+            assertEquals(List.of(firstRelease.getFileName()), releases.map(Path::getFileName).toList());
+        }
+
+        // 失败的版本没有残留，下一次部署保留的上一版本仍是第一次部署的版本
+        Files.delete(brokenLink);
+        write(sourceDir.resolve("index.html"), "<html>v2</html>");
+        incrementalDeployer.deploy(sourceDir, deployRoot, releaseRoot, "abc123");
+        assertEquals("<html>v1</html>", Files.readString(firstRelease.resolve("index.html")));
+    }
+
+    @Test
+    void migrateLegacyDeployDirectory() throws IOException {
+        Path sourceDir = tempDir.resolve("source");
+        Path deployRoot = tempDir.resolve("deploy");
+        write(sourceDir.resolve("index.html"), "<html>new</html>");
+        write(deployRoot.resolve("abc123/index.html"), "<html>legacy</html>");
+        write(deployRoot.resolve("abc123/stale.css"), "stale");
+        incrementalDeployer.deploy(sourceDir, deployRoot, tempDir.resolve("releases"), "abc123");
+        Path deployPath = deployRoot.resolve("abc123");
+        assertTrue(Files.isSymbolicLink(deployPath));
+        assertEquals("<html>new</html>", Files.readString(deployPath.resolve("index.html")));
+        assertFalse(Files.exists(deployPath.resolve("stale.css")));
+    }
+
+    @Test
+    void migrateLegacyDeployDirectoryAgain() throws IOException {
+        Path sourceDir = tempDir.resolve("source");
+        Path deployRoot = tempDir.resolve("deploy");
+        Path releaseRoot = tempDir.resolve("releases");
+        write(sourceDir.resolve("index.html"), "<html>new</html>");
+        write(deployRoot.resolve("abc123/index.html"), "<html>legacy</html>");
+        incrementalDeployer.deploy(sourceDir, deployRoot, releaseRoot, "abc123");
+        // 部署目录再次被替换为普通目录时，转换不会与上一次留下的旧版本目录冲突
+        Path deployPath = deployRoot.resolve("abc123");
+        Files.delete(deployPath);
+        write(deployPath.resolve("index.html"), "<html>legacy again</html>");
+        incrementalDeployer.deploy(sourceDir, deployRoot, releaseRoot, "abc123");
+        assertTrue(Files.isSymbolicLink(deployPath));
+        assertEquals("<html>new</html>", Files.readString(deployPath.resolve("index.html")));
+    }
+
+    @Test
+    void precompressTextAssets() throws IOException {
+        Path sourceDir = tempDir.resolve("source");
+        Path deployRoot = tempDir.resolve("deploy");
+        Path releaseRoot = tempDir.resolve("releases");
+        String script = "console.log('hello');\n".repeat(100);
+        write(sourceDir.resolve("assets/app.js"), script);
+        write(sourceDir.resolve("index.html"), "<html></html>");
+        incrementalDeployer.deploy(sourceDir, deployRoot, releaseRoot, "abc123");
+        Path firstRelease = deployRoot.resolve("abc123").toRealPath();
+        try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(firstRelease.resolve("assets/app.js.gz")))) {
+            assertEquals(script, new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        // 小文件不压缩
+        assertFalse(Files.exists(firstRelease.resolve("index.html.gz")));
+
+        write(sourceDir.resolve("index.html"), "<html>v2</html>");
+        incrementalDeployer.deploy(sourceDir, deployRoot, releaseRoot, "abc123");
+        Path secondRelease = deployRoot.resolve("abc123").toRealPath();
+        // 未变化文件的压缩版本同样复用
+        assertTrue(Files.isSameFile(firstRelease.resolve("assets/app.js.gz"), secondRelease.resolve("assets/app.js.gz")));
+    }
+
+    private void write(Path path, String content) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content);
+    }
+}
@@ -0,0 +1,69 @@
+package com.dong.dongaicodegenerator.core.handler;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamChunkCoalescerTest {
+
+    @Test
+    void coalesceBySize() {
+        Flux<String> originFlux = Flux.fromIterable(Collections.nCopies(100, "ab"));
+        List<String> result = StreamChunkCoalescer.coalesce(originFlux, 10_000, 10).collectList().block();
+        assertNotNull(result);
+        assertEquals(20, result.size());
+        result.forEach(chunk -> assertEquals(10, chunk.length()));
+    }
+
+    @Test
+    void coalesceByTime() {
+        // 前两个片段在时间窗口内合并，延迟到达的片段单独推送
+        Flux<String> originFlux = Flux.just("a", "b")
+                .concatWith(Mono.delay(Duration.ofMillis(300)).thenReturn("c"));
+        List<String> result = StreamChunkCoalescer.coalesce(originFlux, 50, 1024).collectList().block();
+        assertEquals(List.of("ab", "c"), result);
+    }
+
+    @Test
+    void respectDownstreamDemand() {
+        AtomicLong upstreamRequested = new AtomicLong();
+        Flux<String> originFlux = Flux.fromIterable(Collections.nCopies(100, "ab"))
+                .doOnRequest(upstreamRequested::addAndGet);
+        List<String> received = new ArrayList<>();
+        StreamChunkCoalescer.coalesce(originFlux, 10_000, 10).subscribe(new BaseSubscriber<>() {
+            @Override
+            protected void hookOnSubscribe(Subscription subscription) {
+                request(1);
+            }
+
+            @Override
+            protected void hookOnNext(String chunk) {
+                received.add(chunk);
+            }
+        });
+        // 下游只请求一次：推送一个片段后，上游最多再填满一次缓冲区
+        assertEquals(List.of("ababababab"), received);
+        assertTrue(upstreamRequested.get() <= 11, "上游请求数：" + upstreamRequested.get());
+    }
+
+    @Test
+    void flushBeforeError() {
+        Flux<String> originFlux = Flux.just("a", "b")
+                .concatWith(Flux.error(new IllegalStateException("模型异常")));
+        List<String> received = new ArrayList<>();
+        assertThrows(IllegalStateException.class, () -> StreamChunkCoalescer.coalesce(originFlux, 10_000, 1024)
+                .doOnNext(received::add)
+                .blockLast());
+        assertEquals(List.of("ab"), received);
+    }
+}
@@ -0,0 +1,91 @@
+package com.dong.dongaicodegenerator.core.parser;
+
+import com.dong.dongaicodegenerator.ai.model.HtmlCodeResult;
+import com.dong.dongaicodegenerator.ai.model.MultiFileCodeResult;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingCodeParserTest {
+
+    private static final String MULTI_FILE_CONTENT = """
+            创建一个完整的网页：
+            ```html
+            <!DOCTYPE html>
+            <html>
+            <head>
+                <title>多文件示例</title>
+                <link rel="stylesheet" href="style.css">
+            </head>
+            <body>
+                <h1>欢迎使用</h1>
+                <script src="script.js"></script>
+            </body>
+            </html>
+            ```
+
+            ```css
+            h1 {
+                color: blue;
+                text-align: center;
+            }
+            ```
+
+            ```javascript
+            const title = `欢迎 ${name}`;
+            console.log(title);
+            ```
+
+            文件创建完成！
+            """;
+
+    @Test
+    void parseMultiFileCodeInChunks() {
+        MultiFileCodeResult expected = new MultiFileCodeParser().parseCode(MULTI_FILE_CONTENT);
+        // 不同的切分粒度都要得到与正则解析一致的结果
+        for (int chunkSize = 1; chunkSize <= 7; chunkSize++) {
+            List<CodeBlock> codeBlocks = new ArrayList<>();
+            StreamingCodeParser parser = new StreamingCodeParser(codeBlocks::add);
+            for (int i = 0; i < MULTI_FILE_CONTENT.length(); i += chunkSize) {
+                parser.feed(MULTI_FILE_CONTENT.substring(i, Math.min(i + chunkSize, MULTI_FILE_CONTENT.length())));
+            }
+            parser.finish();
+            MultiFileCodeResult result = parser.toMultiFileCodeResult();
+            assertEquals(expected.getHtmlCode(), result.getHtmlCode());
+            assertEquals(expected.getCssCode(), result.getCssCode());
+            assertEquals(expected.getJsCode(), result.getJsCode());
+            assertEquals(3, codeBlocks.size());
+            assertEquals("js", codeBlocks.get(2).getLanguage());
+        }
+    }
+
+    @Test
+    void parseHtmlCodeWithoutFence() {
+        StreamingCodeParser parser = new StreamingCodeParser();
+        parser.feed("  <html><body>Hello</body></html>\n");
+        parser.finish();
+        HtmlCodeResult result = parser.toHtmlCodeResult();
+        assertEquals("<html><body>Hello</body></html>", result.getHtmlCode());
+    }
+
+    @Test
+    void fallbackToFullContentWithoutHtmlBlock() {
+        // 只有未标注语言的代码块时，与 HtmlCodeParser 一样使用全部内容作为 HTML
+        String content = "页面如下：\n```\n<html><body>Hello</body></html>\n```\n";
+        StreamingCodeParser parser = new StreamingCodeParser();
+        parser.feed(content);
+        parser.finish();
+        assertEquals(new HtmlCodeParser().parseCode(content).getHtmlCode(), parser.toHtmlCodeResult().getHtmlCode());
+    }
+
+    @Test
+    void dropUnclosedCodeBlock() {
+        StreamingCodeParser parser = new StreamingCodeParser();
+        parser.feed("```css\nh1 { color: red; }\n");
+        parser.finish();
+        assertNull(parser.getCode("css"));
+    }
+}
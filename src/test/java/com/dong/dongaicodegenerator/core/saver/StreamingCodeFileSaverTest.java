@@ -0,0 +1,87 @@
+package com.dong.dongaicodegenerator.core.saver;
+
+import com.dong.dongaicodegenerator.core.parser.StreamingCodeParser;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingCodeFileSaverTest {
+
+    private static final String CONTENT = """
+            创建一个完整的网页：
+            ```html
+            <html>
+                <p>`x` 😀</p>
+            </html>
+            ```
+            ```css
+            h1 { color: blue; }
+            ```
+            ```javascript
+            const title = `欢迎 ${name}`;
+            ```
+            ```js
+            console.log('未闭合');
+            """;
+
+    @Test
+    void saveCodeBlocksProgressively(@TempDir Path dir) throws IOException {
+        StreamingCodeFileSaver saver = newSaver(dir, new MultiFileCodeSaverTemplate());
+        StreamingCodeParser parser = new StreamingCodeParser(saver);
+        for (int i = 0; i < CONTENT.length(); i += 3) {
+            parser.feed(CONTENT.substring(i, Math.min(i + 3, CONTENT.length())));
+            if (CONTENT.substring(0, i).contains("```css")) {
+                // CSS 代码块开始时 HTML 文件已经落盘
+                assertTrue(Files.exists(dir.resolve("index.html")));
+            }
+        }
+        parser.finish();
+        assertEquals(List.of("index.html", "style.css", "script.js"), saver.getSavedFileNames());
+        assertEquals("<html>\n    <p>`x` 😀</p>\n</html>", Files.readString(dir.resolve("index.html")));
+        assertEquals("h1 { color: blue; }", Files.readString(dir.resolve("style.css")));
+        assertEquals("const title = `欢迎 ${name}`;", Files.readString(dir.resolve("script.js")));
+        // 未闭合代码块的临时文件已被清理
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(3, files.count());
+        }
+    }
+
+    @Test
+    void abortKeepsCompletedFilesWithoutPreviousVersion(@TempDir Path dir) throws IOException {
+        Files.writeString(dir.resolve("index.html"), "旧版本");
+        Files.writeString(dir.resolve("style.css"), "旧版本");
+        Files.writeString(dir.resolve("script.js"), "旧版本");
+        StreamingCodeFileSaver saver = newSaver(dir, new MultiFileCodeSaverTemplate());
+        StreamingCodeParser parser = new StreamingCodeParser(saver);
+        // HTML 代码块已闭合，CSS 代码块写到一半时流出错
+        parser.feed("```html\n<html></html>\n```\n```css\nh1 {");
+        saver.abort();
+        // 已完成的 HTML 保留，上一版本的 CSS、JS 已删除，不会与新 HTML 混合
+        assertEquals("<html></html>", Files.readString(dir.resolve("index.html")));
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @Test
+    void abortRemovesTempFile(@TempDir Path dir) throws IOException {
+        StreamingCodeFileSaver saver = newSaver(dir, new HtmlCodeSaverTemplate());
+        StreamingCodeParser parser = new StreamingCodeParser(saver);
+        parser.feed("```html\n<html>");
+        saver.abort();
+        try (Stream<Path> files = Files.list(dir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private static StreamingCodeFileSaver newSaver(Path dir, CodeFileSaverTemplate<?> template) {
+        return new StreamingCodeFileSaver(dir.toFile(), template::resolveFileName, template.getCodeFileNames());
+    }
+}
@@ -0,0 +1,68 @@
+package com.dong.dongaicodegenerator.manager;
+
+import com.dong.dongaicodegenerator.config.StaticResourceConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StaticResourceManagerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final StaticResourceManager staticResourceManager = new StaticResourceManager();
+
+    @BeforeEach
+    void setUp() {
+        StaticResourceConfig staticResourceConfig = new StaticResourceConfig();
+        staticResourceConfig.setGzipCacheDir(tempDir.resolve("gzip").toString());
+        ReflectionTestUtils.setField(staticResourceManager, "staticResourceConfig", staticResourceConfig);
+        ReflectionTestUtils.setField(staticResourceManager, "meterRegistry", new SimpleMeterRegistry());
+        staticResourceManager.init();
+    }
+
+    @Test
+    void cachedContentMatchesEtagAfterRewrite() throws IOException {
+        Path root = tempDir.resolve("site");
+        Files.createDirectories(root);
+        Files.writeString(root.resolve("a.js"), "console.log('v1')");
+        StaticResourceManager.StaticFile staticFile = staticResourceManager.resolve(root, "/a.js");
+        assertNotNull(staticFile);
+        // 解析后文件被改写：按解析时的 ETag 取到的仍是解析时读取的内容
+        Files.writeString(root.resolve("a.js"), "console.log('v2')");
+        assertEquals("console.log('v1')", read(staticResourceManager.getContent(staticFile, false)));
+    }
+
+    @Test
+    void sameContentInDifferentFilesIsCachedSeparately() throws IOException {
+        Path root = tempDir.resolve("site");
+        Files.createDirectories(root);
+        Files.writeString(root.resolve("a.css"), "h1 { color: red; }");
+        Files.writeString(root.resolve("b.css"), "h1 { color: red; }");
+        StaticResourceManager.StaticFile first = staticResourceManager.resolve(root, "a.css");
+        StaticResourceManager.StaticFile second = staticResourceManager.resolve(root, "b.css");
+        assertEquals(first.getEtag(), second.getEtag());
+        Files.writeString(root.resolve("a.css"), "h1 { color: blue; }");
+        staticResourceManager.invalidateDirectory(root);
+        // a.css 的新内容不会影响内容相同的 b.css
+        assertEquals("h1 { color: blue; }", read(staticResourceManager.getContent(staticResourceManager.resolve(root, "a.css"), false)));
+        assertEquals("h1 { color: red; }", read(staticResourceManager.getContent(second, false)));
+    }
+
+    private static String read(ByteBuffer content) {
+        assertNotNull(content);
+        byte[] bytes = new byte[content.remaining()];
+        content.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
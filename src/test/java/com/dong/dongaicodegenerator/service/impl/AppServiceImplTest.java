@@ -0,0 +1,49 @@
+package com.dong.dongaicodegenerator.service.impl;
+
+import com.dong.dongaicodegenerator.model.dto.AppQueryRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AppServiceImplTest {
+
+    private final AppServiceImpl appService = new AppServiceImpl();
+
+    @Test
+    void toFulltextPhrase() {
+        // 英文关键词同样转换为短语检索，依赖建索引时关闭停用词（data 的分词 at 是默认停用词）
+        assertEquals("\"data\"", AppServiceImpl.toFulltextPhrase("data"));
+        assertEquals("\"登录页\"", AppServiceImpl.toFulltextPhrase(" 登录页 "));
+        assertEquals("\"say  hi\"", AppServiceImpl.toFulltextPhrase("say \"hi\""));
+        assertNull(AppServiceImpl.toFulltextPhrase("a"));
+        assertNull(AppServiceImpl.toFulltextPhrase(null));
+    }
+
+    @Test
+    void useFulltextIndexWhenCreated() {
+        ReflectionTestUtils.setField(appService, "fulltextIndexNames",
+                Set.of("ft_appName", "ft_initPrompt", "ft_appName_initPrompt"));
+        AppQueryRequest appQueryRequest = new AppQueryRequest();
+        appQueryRequest.setAppName("data");
+        String sql = appService.getQueryWrapper(appQueryRequest).toSQL();
+        assertTrue(sql.contains("match(appName) against"), sql);
+        assertTrue(sql.contains("\"data\""), sql);
+        assertFalse(sql.toUpperCase().contains(" LIKE "), sql);
+    }
+
+    @Test
+    void useLikeWhenFulltextIndexMissing() {
+        ReflectionTestUtils.setField(appService, "fulltextIndexNames", Set.of("ft_initPrompt"));
+        AppQueryRequest appQueryRequest = new AppQueryRequest();
+        appQueryRequest.setAppName("data");
+        appQueryRequest.setSearchText("login");
+        String sql = appService.getQueryWrapper(appQueryRequest).toSQL();
+        // 缺少名称索引和联合索引，名称筛选和关键词搜索都使用 like
+        assertFalse(sql.contains("match("), sql);
+        assertTrue(sql.contains("%data%"), sql);
+        assertTrue(sql.contains("%login%"), sql);
+    }
+}
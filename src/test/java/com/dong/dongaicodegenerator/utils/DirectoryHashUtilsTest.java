@@ -0,0 +1,54 @@
+package com.dong.dongaicodegenerator.utils;
+
+import cn.hutool.core.io.FileUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DirectoryHashUtilsTest {
+
+    @TempDir
+    File tempDir;
+
+    @Test
+    void sameContentSameHash() {
+        File first = createSite("first", "body { color: red; }");
+        File second = createSite("second", "body { color: red; }");
+        assertEquals(DirectoryHashUtils.sha256Hex(first), DirectoryHashUtils.sha256Hex(second));
+    }
+
+    @Test
+    void changedContentChangesHash() {
+        File first = createSite("first", "body { color: red; }");
+        File second = createSite("second", "body { color: blue; }");
+        assertNotEquals(DirectoryHashUtils.sha256Hex(first), DirectoryHashUtils.sha256Hex(second));
+    }
+
+    @Test
+    void renamedFileChangesHash() {
+        File first = createSite("first", "body { color: red; }");
+        String before = DirectoryHashUtils.sha256Hex(first);
+        FileUtil.rename(new File(first, "assets/style.css"), "main.css", false);
+        assertNotEquals(before, DirectoryHashUtils.sha256Hex(first));
+    }
+
+    @Test
+    void filteredFilesDoNotAffectHash() {
+        File first = createSite("first", "body { color: red; }");
+        String before = DirectoryHashUtils.sha256Hex(first, file -> !file.getName().equals("node_modules"));
+        FileUtil.writeString("module.exports = {}", new File(first, "node_modules/vue/index.js"), StandardCharsets.UTF_8);
+        assertEquals(before, DirectoryHashUtils.sha256Hex(first, file -> !file.getName().equals("node_modules")));
+        assertNotEquals(before, DirectoryHashUtils.sha256Hex(first));
+    }
+
+    private File createSite(String name, String css) {
+        File dir = new File(tempDir, name);
+        FileUtil.writeString("<html></html>", new File(dir, "index.html"), StandardCharsets.UTF_8);
+        FileUtil.writeString(css, new File(dir, "assets/style.css"), StandardCharsets.UTF_8);
+        return dir;
+    }
+}
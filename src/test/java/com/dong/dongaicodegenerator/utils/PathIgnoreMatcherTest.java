@@ -0,0 +1,63 @@
+package com.dong.dongaicodegenerator.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PathIgnoreMatcherTest {
+
+    private final PathIgnoreMatcher matcher = PathIgnoreMatcher.compile(List.of(
+            "node_modules", "*.log", ".env*", "/public/uploads/", "# 注释", ""
+    ));
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void matchesNamesSuffixesAndPrefixesAtAnyDepth() {
+        assertTrue(matcher.isIgnored(Path.of("node_modules")));
+        assertTrue(matcher.isIgnored(Path.of("packages/a/node_modules/vue/index.js")));
+        assertTrue(matcher.isIgnored(Path.of("logs/npm-debug.log")));
+        assertTrue(matcher.isIgnored(Path.of("src/.env.local")));
+        assertFalse(matcher.isIgnored(Path.of("src/node_modules.js")));
+        assertFalse(matcher.isIgnored(Path.of("src/log.js")));
+        assertFalse(matcher.isIgnored(Path.of("src/env.js")));
+    }
+
+    @Test
+    void anchoredPatternsMatchFromRootOnly() {
+        assertTrue(matcher.isIgnored(Path.of("public/uploads")));
+        assertTrue(matcher.isIgnored(Path.of("public/uploads/a.png")));
+        assertFalse(matcher.isIgnored(Path.of("public/favicon.ico")));
+        assertFalse(matcher.isIgnored(Path.of("src/public/uploads/a.png")));
+    }
+
+    @Test
+    void listFilesSkipsIgnoredSubtrees() throws IOException {
+        write("index.html");
+        write("src/main.js");
+        write("src/public/uploads/kept.png");
+        write("public/uploads/removed.png");
+        write("public/favicon.ico");
+        write("node_modules/vue/index.js");
+        write("debug.log");
+
+        List<String> files = matcher.listFiles(tempDir).stream()
+                .map(file -> tempDir.relativize(file).toString().replace('\\', '/'))
+                .toList();
+
+        assertEquals(List.of("index.html", "public/favicon.ico", "src/main.js", "src/public/uploads/kept.png"), files);
+    }
+
+    private void write(String relativePath) throws IOException {
+        Path file = tempDir.resolve(relativePath);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, relativePath);
+    }
+}
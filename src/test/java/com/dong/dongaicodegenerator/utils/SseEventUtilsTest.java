@@ -0,0 +1,23 @@
+package com.dong.dongaicodegenerator.utils;
+
+import cn.hutool.json.JSONUtil;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SseEventUtilsTest {
+
+    @Test
+    void encodeChunk() {
+        assertEquals("{\"d\":\"abc\"}", SseEventUtils.encodeChunk("abc"));
+    }
+
+    @Test
+    void encodeChunkWithSpecialCharacters() {
+        // 换行、引号、反斜杠、控制字符和中文都应能被前端原样解析
+        String chunk = "<div class=\"a\">\n\t\\n 你好 \u0001 😀</div>\r\n";
+        String json = SseEventUtils.encodeChunk(chunk);
+        assertFalse(json.contains("\n"));
+        assertEquals(chunk, JSONUtil.parseObj(json).getStr("d"));
+    }
+}
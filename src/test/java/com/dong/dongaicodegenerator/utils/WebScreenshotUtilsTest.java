@@ -1,6 +1,7 @@
 package com.dong.dongaicodegenerator.utils;
 
 import com.dong.dongaicodegenerator.utils.WebScreenshotUtils;
+import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -10,10 +11,13 @@ import org.springframework.boot.test.context.SpringBootTest;
 @SpringBootTest
 public class WebScreenshotUtilsTest {
 
+    @Resource
+    private WebScreenshotUtils webScreenshotUtils;
+
     @Test
     void saveWebPageScreenshot() {
         String testUrl = "https://baidu.com/";
-        String webPageScreenshot = WebScreenshotUtils.saveWebPageScreenshot(testUrl);
+        String webPageScreenshot = webScreenshotUtils.saveWebPageScreenshot(testUrl);
         Assertions.assertNotNull(webPageScreenshot);
     }
 }
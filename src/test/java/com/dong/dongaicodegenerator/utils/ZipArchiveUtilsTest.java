@@ -0,0 +1,60 @@
+package com.dong.dongaicodegenerator.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZipArchiveUtilsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void archiveCanBeReadBack() throws IOException {
+        Path projectDir = tempDir.resolve("project");
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            files.add(write(projectDir.resolve("src/组件" + i + "/index.js"), "console.log(" + i + ");\n".repeat(i * 10 + 1)));
+        }
+        byte[] image = new byte[4096];
+        new Random(1).nextBytes(image);
+        Path imageFile = projectDir.resolve("assets/logo.png");
+        Files.createDirectories(imageFile.getParent());
+        Files.write(imageFile, image);
+        files.add(imageFile);
+        files.add(write(projectDir.resolve("empty.txt"), ""));
+        Path archive = tempDir.resolve("project.zip");
+
+        ZipArchiveUtils.createArchive(projectDir, files, archive);
+
+        try (ZipFile zipFile = new ZipFile(archive.toFile(), StandardCharsets.UTF_8)) {
+            assertEquals(files.size(), zipFile.size());
+            for (Path file : files) {
+                String name = projectDir.relativize(file).toString().replace('\\', '/');
+                ZipEntry entry = zipFile.getEntry(name);
+                assertNotNull(entry, name);
+                assertArrayEquals(Files.readAllBytes(file), zipFile.getInputStream(entry).readAllBytes());
+            }
+            // 已压缩的图片直接存放，文本文件压缩存放
+            assertEquals(ZipEntry.STORED, zipFile.getEntry("assets/logo.png").getMethod());
+            assertEquals(ZipEntry.DEFLATED, zipFile.getEntry("src/组件19/index.js").getMethod());
+        }
+    }
+
+    private Path write(Path path, String content) throws IOException {
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content);
+        return path;
+    }
+}